@@ -254,7 +254,7 @@ public final class ACRA {
                 startupProcessor.deleteAllUnapprovedReportsBarOne();
             }
             if (enableAcra) {
-                startupProcessor.sendApprovedReports();
+                errorReporterSingleton.sendApprovedReports(startupProcessor);
             }
         }
 
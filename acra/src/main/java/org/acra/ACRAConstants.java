@@ -86,6 +86,11 @@ public final class ACRAConstants {
      */
     public static final int TOAST_WAIT_DURATION = 2000;
 
+    /**
+     * Maximum number of milliseconds a thread with an uncaught exception waits while another thread handles its crash.
+     */
+    public static final int CONCURRENT_CRASH_WAIT_DURATION = 5000;
+
     /**
      * A special String value to allow the usage of a pseudo-null default value
      * in annotation parameters.
@@ -138,6 +143,57 @@ public final class ACRAConstants {
 
     public static final int DEFAULT_APPLICATION_LOGFILE_LINES = DEFAULT_LOGCAT_LINES;
 
+    public static final boolean DEFAULT_PARALLEL_COLLECTION = false;
+
+    public static final int DEFAULT_COLLECTOR_TIMEOUT = 3000;
+
+    public static final boolean DEFAULT_CACHE_STATIC_FIELDS = false;
+
+    public static final boolean DEFAULT_SNAPSHOT_COLLECTION = false;
+
+    public static final int DEFAULT_COLLECTION_TIME_BUDGET = 0;
+
+    public static final int DEFAULT_SILENT_REPORT_CACHE_TTL = 0;
+
+    public static final boolean DEFAULT_PERSIST_MINIMAL_REPORT_FIRST = false;
+
+    public static final boolean DEFAULT_OOM_SAFE_MODE = false;
+
+    public static final int DEFAULT_OOM_BALLAST_SIZE = 256 * 1024;
+
+    public static final int DEFAULT_CRASH_HANDLING_TIMEOUT = 0;
+
+    public static final boolean DEFAULT_NON_BLOCKING_REPORTS = false;
+
+    public static final int DEFAULT_REPORT_QUEUE_CAPACITY = 32;
+
+    public static final int DEFAULT_RATE_LIMIT_BURST = 0;
+
+    public static final int DEFAULT_RATE_LIMIT_PER_HOUR = 6;
+
+    public static final int DEFAULT_GLOBAL_REPORTS_PER_HOUR = 0;
+
+    public static final int DEFAULT_SILENT_REPORT_SAMPLING_PERCENT = 100;
+
+    public static final int DEFAULT_CRASH_LOOP_THRESHOLD = 0;
+
+    public static final int DEFAULT_CRASH_LOOP_WINDOW = 10000;
+
+    public static final boolean DEFAULT_CONTINUOUS_LOGCAT = false;
+
+    public static final int DEFAULT_LOGCAT_BUFFER_SIZE = 64 * 1024;
+
+    public static final boolean DEFAULT_LOGCAT_SINCE_LAST_REPORT = false;
+
+    public static final int DEFAULT_LOGCAT_MAX_BYTES = 0;
+
+    public static final int DEFAULT_BREADCRUMB_CAPACITY = 50;
+
+    /**
+     * Number of threads used to run collectors if {@link org.acra.annotation.ReportsCrashes#parallelCollection()} is enabled.
+     */
+    public static final int PARALLEL_COLLECTOR_THREADS = 3;
+
     /**
      * Default list of {@link ReportField}s to be sent in email reports. You can
      * set your own list with
@@ -157,7 +213,18 @@ public final class ACRAConstants {
             PACKAGE_NAME, FILE_PATH, PHONE_MODEL, BRAND, PRODUCT, ANDROID_VERSION, BUILD, TOTAL_MEM_SIZE,
             AVAILABLE_MEM_SIZE, BUILD_CONFIG, CUSTOM_DATA, IS_SILENT, STACK_TRACE, INITIAL_CONFIGURATION, CRASH_CONFIGURATION,
             DISPLAY, USER_COMMENT, USER_EMAIL, USER_APP_START_DATE, USER_CRASH_DATE, DUMPSYS_MEMINFO, LOGCAT,
-            INSTALLATION_ID, DEVICE_FEATURES, ENVIRONMENT, SHARED_PREFERENCES };
+            INSTALLATION_ID, DEVICE_FEATURES, ENVIRONMENT, SHARED_PREFERENCES, REUSED_FIELDS,
+            IS_TRUNCATED, CONCURRENT_CRASHES, SUPPRESSED_REPORTS, BREADCRUMBS };
+
+    /**
+     * Default list of {@link ReportField}s to be stored in a minimal report. You can set
+     * your own list with
+     * {@link org.acra.annotation.ReportsCrashes#customMinimalReportContent()}.
+     *
+     * @see org.acra.annotation.ReportsCrashes#persistMinimalReportFirst()
+     */
+    public static final ReportField[] DEFAULT_MINIMAL_REPORT_FIELDS = { REPORT_ID, APP_VERSION_CODE, APP_VERSION_NAME, PACKAGE_NAME,
+            ANDROID_VERSION, STACK_TRACE, STACK_TRACE_HASH, IS_SILENT, USER_APP_START_DATE, USER_CRASH_DATE };
 
     public static final String DATE_TIME_FORMAT_STRING = "yyyy-MM-dd'T'HH:mm:ss.SSSZZZZZ";
 
@@ -165,5 +232,12 @@ public final class ACRAConstants {
 
     public static final Element NOT_AVAILABLE = new StringElement("N/A");
 
+    public static final Element TIMED_OUT = new StringElement("Timed out");
+
+    /**
+     * Start of the line appended to output which was cut short, e.g. because a process did not finish in time
+     */
+    public static final String TRUNCATED_NOTE = "[truncated: ";
+
     public static final String UTF8 = "UTF-8";
 }
@@ -21,11 +21,13 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import org.acra.annotation.ReportsCrashes;
+import org.acra.builder.CrashLoopDetector;
 import org.acra.builder.LastActivityManager;
 import org.acra.builder.NoOpReportPrimer;
 import org.acra.builder.ReportBuilder;
 import org.acra.builder.ReportExecutor;
 import org.acra.builder.ReportPrimer;
+import org.acra.builder.ReportQueue;
 import org.acra.collector.ConfigurationCollector;
 import org.acra.collector.CrashReportDataFactory;
 import org.acra.config.ACRAConfiguration;
@@ -37,6 +39,9 @@ import org.acra.util.ProcessFinisher;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.acra.ACRA.LOG_TAG;
 
@@ -76,6 +81,22 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
     private final CrashReportDataFactory crashReportDataFactory;
     @NonNull
     private final ReportExecutor reportExecutor;
+    @Nullable
+    private final ReportQueue reportQueue;
+    @Nullable
+    private final CrashLoopDetector crashLoopDetector;
+
+    /**
+     * Memory reserved for handling an {@link OutOfMemoryError}, released as soon as an uncaught exception occurs.
+     */
+    @SuppressWarnings({"FieldCanBeLocal", "unused"})
+    @Nullable
+    private volatile byte[] oomBallast;
+
+    /**
+     * The uncaught exception currently being handled. Uncaught exceptions on other threads are attached to its report.
+     */
+    private final AtomicReference<FatalReport> fatalReport = new AtomicReference<FatalReport>();
 
     @NonNull
     private volatile ExceptionHandlerInitializer exceptionHandlerInitializer = new ExceptionHandlerInitializer() {
@@ -100,6 +121,9 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
         this.context = context;
         this.config = config;
         this.supportedAndroidVersion = supportedAndroidVersion;
+        if (config.oomSafeMode() && config.oomBallastSize() > 0) {
+            oomBallast = new byte[config.oomBallastSize()];
+        }
 
         // Store the initial Configuration state.
         // This is expensive to gather, so only do so if we plan to report it.
@@ -128,9 +152,11 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
         final InstanceCreator instanceCreator = new InstanceCreator();
         final ReportPrimer reportPrimer = instanceCreator.create(config.reportPrimerClass(), new NoOpReportPrimer());
         final ProcessFinisher processFinisher = new ProcessFinisher(context, config, lastActivityManager);
+        crashLoopDetector = listenForUncaughtExceptions && config.crashLoopThreshold() > 0 ? new CrashLoopDetector(context, config) : null;
 
-        reportExecutor = new ReportExecutor(context, config, crashReportDataFactory, defaultExceptionHandler, reportPrimer, processFinisher);
+        reportExecutor = new ReportExecutor(context, config, crashReportDataFactory, defaultExceptionHandler, reportPrimer, processFinisher, crashLoopDetector);
         reportExecutor.setEnabled(enabled);
+        reportQueue = config.nonBlockingReports() ? new ReportQueue(reportExecutor, config.reportQueueCapacity(), config.reportQueueOverflowPolicy()) : null;
     }
 
     /**
@@ -165,6 +191,24 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
         return crashReportDataFactory.putCustomData(key, value);
     }
 
+    /**
+     * <p>
+     * Leaves a breadcrumb, a short note on what the application was doing, which is reported in {@link ReportField#BREADCRUMBS}.
+     * The latest {@link ACRAConfiguration#breadcrumbCapacity()} breadcrumbs are kept.
+     * </p>
+     * <p>
+     * Unlike {@link #putCustomData(String, String)}, this is meant to be called often and from any thread:
+     * it does not lock and only allocates the breadcrumb itself.
+     * </p>
+     *
+     * @param category optional category, e.g. "ui" or "network".
+     * @param message  what happened.
+     */
+    @SuppressWarnings("unused")
+    public void leaveBreadcrumb(@Nullable String category, @NonNull String message) {
+        crashReportDataFactory.leaveBreadcrumb(category, message);
+    }
+
     /**
      * <p>
      * Use this method to perform additional initialization before the
@@ -248,6 +292,8 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
      */
     @Override
     public void uncaughtException(@Nullable Thread t, @NonNull Throwable e) {
+        // give the heap some room to handle this exception, the application is going down anyway
+        oomBallast = null;
 
         // If we're not enabled then just pass the Exception on to the defaultExceptionHandler.
         if (!reportExecutor.isEnabled()) {
@@ -255,6 +301,25 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
             return;
         }
 
+        // created first so the time spent handling the crash is measured from here
+        final ReportBuilder builder = new ReportBuilder();
+        final FatalReport report = new FatalReport(builder);
+        // released once the report has been handled completely, which only happens if the application keeps running, e.g. with a debugger attached
+        builder.onHandled(new Runnable() {
+            @Override
+            public void run() {
+                releaseFatalReport(report);
+            }
+        });
+        if (!fatalReport.compareAndSet(null, report)) {
+            awaitFatalReport(t, e);
+            return;
+        }
+
+        if (crashLoopDetector != null) {
+            crashLoopDetector.recordCrash();
+        }
+
         try {
             ACRA.log.e(LOG_TAG, "ACRA caught a " + e.getClass().getSimpleName() + " for " + context.getPackageName(), e);
             if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Building report");
@@ -262,8 +327,7 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
             performDeprecatedReportPriming();
 
             // Generate and send crash report
-            new ReportBuilder()
-                .uncaughtExceptionThread(t)
+            builder.uncaughtExceptionThread(t)
                 .exception(e)
                 .endApplication()
                 .build(reportExecutor);
@@ -271,10 +335,46 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
         } catch (Throwable fatality) {
             // ACRA failed. Prevent any recursive call to ACRA.uncaughtException(), let the native reporter do its job.
             ACRA.log.e(LOG_TAG, "ACRA failed to capture the error - handing off to native error reporter" , fatality);
+            releaseFatalReport(report);
             reportExecutor.handReportToDefaultExceptionHandler(t, e);
         }
     }
 
+    /**
+     * Lets further uncaught exceptions be handled on their own and wakes up threads waiting for this report.
+     *
+     * @param report the report which has been handled
+     */
+    private void releaseFatalReport(@NonNull FatalReport report) {
+        fatalReport.compareAndSet(report, null);
+        report.handled.countDown();
+    }
+
+    /**
+     * Another thread is already handling an uncaught exception and will end the application.
+     * Attach this exception to its report instead of collecting a second one, and wait a bounded time for it to finish.
+     *
+     * @param t the thread of this exception
+     * @param e the uncaught exception
+     */
+    private void awaitFatalReport(@Nullable Thread t, @NonNull Throwable e) {
+        ACRA.log.e(LOG_TAG, "ACRA caught a " + e.getClass().getSimpleName() + " while handling another crash", e);
+        final FatalReport report = fatalReport.get();
+        if (report == null) {
+            // the other crash has just been handled without ending the application, so handle this one on its own
+            uncaughtException(t, e);
+            return;
+        }
+        report.builder.concurrentCrash(t, e);
+        try {
+            if (!report.handled.await(ACRAConstants.CONCURRENT_CRASH_WAIT_DURATION, TimeUnit.MILLISECONDS)) {
+                ACRA.log.w(LOG_TAG, "Gave up waiting for the report of the first crash");
+            }
+        } catch (InterruptedException ignored) {
+            // the thread ends anyway
+        }
+    }
+
     /**
      * Mark this report as silent as send it.
      *
@@ -284,10 +384,10 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
     @SuppressWarnings("unused")
     public void handleSilentException(@Nullable Throwable e) {
         performDeprecatedReportPriming();
-        new ReportBuilder()
+        final ReportBuilder builder = new ReportBuilder()
                 .exception(e)
-                .sendSilently()
-                .build(reportExecutor);
+                .sendSilently();
+        buildOrEnqueue(builder);
     }
 
     /**
@@ -326,8 +426,26 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
             startupProcessor.deleteAllUnapprovedReportsBarOne();
         }
         if (reportExecutor.isEnabled()) {
+            sendApprovedReports(startupProcessor);
+        }
+    }
+
+    /**
+     * Sends approved reports now, or once the application survived its startup if it is in a crash loop.
+     *
+     * @param startupProcessor the processor to send with
+     */
+    void sendApprovedReports(@NonNull final ApplicationStartupProcessor startupProcessor) {
+        if (crashLoopDetector == null) {
             startupProcessor.sendApprovedReports();
+            return;
         }
+        crashLoopDetector.whenStable(new Runnable() {
+            @Override
+            public void run() {
+                startupProcessor.sendApprovedReports();
+            }
+        });
     }
 
     /**
@@ -348,8 +466,27 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
         builder.exception(e);
         if (endApplication) {
             builder.endApplication();
+            builder.build(reportExecutor);
+        } else {
+            buildOrEnqueue(builder);
+        }
+    }
+
+    /**
+     * Builds a report which does not end the application, in the background if {@link ReportsCrashes#nonBlockingReports()} is enabled.
+     *
+     * @param builder the report to build
+     */
+    private void buildOrEnqueue(@NonNull ReportBuilder builder) {
+        if (reportQueue != null && reportExecutor.isEnabled()) {
+            // the calling thread is part of the report, it is not the one collecting it
+            builder.uncaughtExceptionThread(Thread.currentThread());
+            // the report is collected later, but must contain the custom data set when it was requested
+            builder.globalCustomData(crashReportDataFactory.copyCustomData());
+            reportQueue.enqueue(builder);
+        } else {
+            builder.build(reportExecutor);
         }
-        builder.build(reportExecutor);
     }
 
     /**
@@ -377,4 +514,13 @@ public class ErrorReporter implements Thread.UncaughtExceptionHandler {
             ACRA.log.w(LOG_TAG, "Failed to initialize " + exceptionHandlerInitializer + " from #handleException");
         }
     }
-}
\ No newline at end of file
+
+    private static final class FatalReport {
+        private final ReportBuilder builder;
+        private final CountDownLatch handled = new CountDownLatch(1);
+
+        private FatalReport(@NonNull ReportBuilder builder) {
+            this.builder = builder;
+        }
+    }
+}
@@ -287,7 +287,52 @@ public enum ReportField {
     /**
      * Retrieves the user IP address(es).
      */
-    USER_IP;
+    USER_IP,
+    /**
+     * Time, size and outcome of each collector and field and the total time spent handling the crash.
+     * Use this to find out which fields are expensive to collect.
+     * Not part of the default report content, as measuring the size of large fields like {@link #LOGCAT} itself takes time on the crash path.
+     *
+     * @since 4.9.3
+     */
+    COLLECTION_METRICS,
+    /**
+     * Fields which were not collected for this report, but reused from a report created shortly before, mapped to their age in milliseconds.
+     * Only present if fields were actually reused, see {@link ReportsCrashes#silentReportCacheTtl()}.
+     *
+     * @since 4.9.3
+     */
+    REUSED_FIELDS,
+    /**
+     * Whether crash handling exceeded {@link ReportsCrashes#crashHandlingTimeout()} and the report was stored with the fields collected until then.
+     * Only present in truncated reports.
+     *
+     * @since 4.9.3
+     */
+    IS_TRUNCATED,
+    /**
+     * Exceptions which were not caught on other threads while this report was handled, each with its thread and first stack frames.
+     * Only present if there were any. These exceptions do not produce reports of their own.
+     *
+     * @since 4.9.3
+     */
+    CONCURRENT_CRASHES,
+    /**
+     * Number of reports by exception class which were discarded since the last report,
+     * because the report queue was full (see {@link ReportsCrashes#reportQueueOverflowPolicy()}) or because of rate limiting
+     * (see {@link ReportsCrashes#rateLimitBurst()}, {@link ReportsCrashes#globalReportsPerHour()} and {@link ReportsCrashes#silentReportSamplingPercent()}).
+     * Only present if there were any.
+     *
+     * @since 4.9.3
+     */
+    SUPPRESSED_REPORTS,
+    /**
+     * The latest breadcrumbs left with {@link ErrorReporter#leaveBreadcrumb(String, String)}, oldest first, one per line.
+     * Only present if there were any, see {@link ReportsCrashes#breadcrumbCapacity()}.
+     *
+     * @since 4.9.3
+     */
+    BREADCRUMBS;
 
     /**
      * Whether this field is a collection of key/value pairs.
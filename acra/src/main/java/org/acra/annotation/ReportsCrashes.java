@@ -28,7 +28,9 @@ import org.acra.ReportingInteractionMode;
 import org.acra.attachment.AttachmentUriProvider;
 import org.acra.attachment.DefaultAttachmentProvider;
 import org.acra.builder.NoOpReportPrimer;
+import org.acra.builder.OverflowPolicy;
 import org.acra.builder.ReportPrimer;
+import org.acra.collector.CollectorFactory;
 import org.acra.config.DefaultRetryPolicy;
 import org.acra.config.RetryPolicy;
 import org.acra.dialog.BaseCrashReportDialog;
@@ -661,4 +663,328 @@ public @interface ReportsCrashes {
      * @return if the report should be an attachment instead of plain text. Supported for email mode.
      */
     boolean reportAsFile() default false;
+
+    /**
+     * Set this to true to run collectors which perform blocking operations (logcat, dumpsys, DropBox, IPC...)
+     * on a small pool of threads started during {@link ACRA#init(android.app.Application)}, instead of running
+     * them one after another on the crashing thread.
+     * <p>
+     * Each of these collectors has to finish within {@link #collectorTimeout()}.
+     * Fields of collectors which miss this deadline are reported as timed out.
+     * </p>
+     *
+     * @return true if blocking collectors should run in parallel.
+     * @since 4.9.3
+     */
+    boolean parallelCollection() default ACRAConstants.DEFAULT_PARALLEL_COLLECTION;
+
+    /**
+     * To use in combination with {@link #parallelCollection()}.
+     *
+     * @return Value in milliseconds a collector running in parallel may take before its fields are reported as timed out (default 3000ms).
+     * @since 4.9.3
+     */
+    int collectorTimeout() default ACRAConstants.DEFAULT_COLLECTOR_TIMEOUT;
+
+    /**
+     * Set this to true to collect fields which do not change for an app version on a given OS build
+     * ({@link org.acra.ReportField#BUILD}, {@link org.acra.ReportField#BUILD_CONFIG},
+     * {@link org.acra.ReportField#DEVICE_FEATURES}, {@link org.acra.ReportField#MEDIA_CODEC_LIST}, {@link org.acra.ReportField#PHONE_MODEL},
+     * {@link org.acra.ReportField#BRAND}, {@link org.acra.ReportField#PRODUCT} and the app version) in the background
+     * during {@link ACRA#init(android.app.Application)}.
+     * <p>
+     * The values are stored on disk and only collected again after an OS or app update. Reports reuse them instead of collecting them again.
+     * </p>
+     *
+     * @return true if static fields should be cached.
+     * @since 4.9.3
+     */
+    boolean cacheStaticFields() default ACRAConstants.DEFAULT_CACHE_STATIC_FIELDS;
+
+    /**
+     * Set this to true to keep up-to-date snapshots of {@link org.acra.ReportField#CRASH_CONFIGURATION}, {@link org.acra.ReportField#DISPLAY},
+     * {@link org.acra.ReportField#SHARED_PREFERENCES}, {@link org.acra.ReportField#USER_EMAIL} and the settings fields.
+     * <p>
+     * Snapshots are refreshed on a background thread whenever the configuration, a display, a preference or a setting changes,
+     * so a crash only has to pick them up instead of querying the system while the process is in a bad state.
+     * Changes which happened less than a second before a crash may not be included.
+     * </p>
+     *
+     * @return true if snapshots should be kept.
+     * @since 4.9.3
+     */
+    boolean snapshotCollection() default ACRAConstants.DEFAULT_SNAPSHOT_COLLECTION;
+
+    /**
+     * Add your own {@link org.acra.collector.Collector}s to the report.
+     * Custom collectors may also take over fields from built in collectors by declaring a higher {@link org.acra.collector.Collector#getPriority()}.
+     *
+     * @return factories providing additional collectors.
+     * @since 4.9.3
+     */
+    @NonNull Class<? extends CollectorFactory>[] collectorFactoryClasses() default {};
+
+    /**
+     * Maximum time in milliseconds collecting a report may take (default 0: unlimited).
+     * <p>
+     * Collectors run in order of their {@link org.acra.collector.Collector#getPriority()}. Any collector which is not
+     * {@link org.acra.collector.Collector.Cost#CHEAP} and whose estimated cost does not fit into the remaining budget is skipped.
+     * If used with {@link #parallelCollection()}, parallel collectors also have to finish within the budget.
+     * </p>
+     *
+     * @return total time budget for collecting a report.
+     * @since 4.9.3
+     */
+    int collectionTimeBudget() default ACRAConstants.DEFAULT_COLLECTION_TIME_BUDGET;
+
+    /**
+     * Time in milliseconds silent reports may reuse the output of expensive fields
+     * ({@link org.acra.ReportField#LOGCAT}, {@link org.acra.ReportField#EVENTSLOG}, {@link org.acra.ReportField#RADIOLOG},
+     * {@link org.acra.ReportField#DUMPSYS_MEMINFO}, {@link org.acra.ReportField#DROPBOX} and the settings fields) from an earlier report
+     * (default 0: never reuse).
+     * <p>
+     * Use this if your app may send many silent reports within a short time. If {@link org.acra.ReportField#REUSED_FIELDS} is part of the report content,
+     * it lists the reused fields. Output which was cut short, e.g. because logcat timed out, is never reused.
+     * </p>
+     *
+     * @return time in milliseconds collected fields may be reused by silent reports.
+     * @since 4.9.3
+     */
+    int silentReportCacheTtl() default ACRAConstants.DEFAULT_SILENT_REPORT_CACHE_TTL;
+
+    /**
+     * Set this to true to store a minimal report (see {@link #customMinimalReportContent()}) before collecting all other fields.
+     * <p>
+     * If the process is killed while the full report is collected, the minimal report is sent on the next start.
+     * Otherwise the full report replaces it.
+     * </p>
+     *
+     * @return true if a minimal report should be stored first.
+     * @since 4.9.3
+     */
+    boolean persistMinimalReportFirst() default ACRAConstants.DEFAULT_PERSIST_MINIMAL_REPORT_FIRST;
+
+    /**
+     * To use in combination with {@link #persistMinimalReportFirst()}.
+     * Fields which are not part of the report content are ignored. Defaults to
+     * {@link ReportField#REPORT_ID}, {@link ReportField#APP_VERSION_CODE}, {@link ReportField#APP_VERSION_NAME},
+     * {@link ReportField#PACKAGE_NAME}, {@link ReportField#ANDROID_VERSION}, {@link ReportField#STACK_TRACE},
+     * {@link ReportField#STACK_TRACE_HASH}, {@link ReportField#IS_SILENT}, {@link ReportField#USER_APP_START_DATE}
+     * and {@link ReportField#USER_CRASH_DATE}.
+     *
+     * @return ReportField Array listing the fields to be included in the minimal report.
+     * @since 4.9.3
+     */
+    @NonNull ReportField[] customMinimalReportContent() default {};
+
+    /**
+     * Fields which describe the device rather than the moment of the crash, e.g. {@link ReportField#BUILD},
+     * {@link ReportField#DEVICE_FEATURES}, {@link ReportField#MEDIA_CODEC_LIST}, {@link ReportField#SETTINGS_GLOBAL},
+     * {@link ReportField#INSTALLATION_ID} or {@link ReportField#TOTAL_MEM_SIZE}, can be collected when the report is sent instead.
+     * <p>
+     * Fields listed here are not collected in the crashing process, but in the process sending reports, right before
+     * the report is sent. This keeps the crash handling fast and report files small.
+     * Fields which are not part of the report content are ignored.
+     * Do not use this for fields which describe the crash, like {@link ReportField#LOGCAT} or {@link ReportField#STACK_TRACE}.
+     * </p>
+     *
+     * @return ReportField Array listing the fields to be collected at send time.
+     * @since 4.9.3
+     */
+    @NonNull ReportField[] sendTimeReportContent() default {};
+
+    /**
+     * Set this to true to handle {@link OutOfMemoryError}s more reliably.
+     * <p>
+     * During {@link ACRA#init(android.app.Application)}, {@link #oomBallastSize()} bytes are reserved and released as soon as an
+     * uncaught exception occurs. If the reported exception was caused by an {@link OutOfMemoryError}, only the minimal report
+     * content (see {@link #customMinimalReportContent()}) is collected.
+     * </p>
+     *
+     * @return true if out of memory errors should be handled with a reduced report.
+     * @since 4.9.3
+     */
+    boolean oomSafeMode() default ACRAConstants.DEFAULT_OOM_SAFE_MODE;
+
+    /**
+     * To use in combination with {@link #oomSafeMode()}.
+     *
+     * @return number of bytes to reserve for handling an out of memory error (default 256kB).
+     * @since 4.9.3
+     */
+    int oomBallastSize() default ACRAConstants.DEFAULT_OOM_BALLAST_SIZE;
+
+    /**
+     * Maximum time in milliseconds ACRA may spend handling a report which ends the application, including collection,
+     * waiting for the toast and finishing activities.
+     * <p>
+     * If handling takes longer, the fields collected so far are stored with {@link ReportField#IS_TRUNCATED} set and the
+     * application is ended, so a hanging collector cannot turn a crash into an ANR.
+     * Not enforced while a debugger is attached.
+     * </p>
+     *
+     * @return maximum time for handling a crash, or 0 for no limit.
+     * @since 4.9.3
+     */
+    int crashHandlingTimeout() default ACRAConstants.DEFAULT_CRASH_HANDLING_TIMEOUT;
+
+    /**
+     * Set this to true to handle reports which do not end the application in the background.
+     * <p>
+     * {@link org.acra.ErrorReporter#handleSilentException(Throwable)} and {@link org.acra.ErrorReporter#handleException(Throwable, boolean)}
+     * without ending the application then only queue the exception and return immediately.
+     * A single background thread collects and stores the queued reports.
+     * </p>
+     *
+     * @return true if reports which do not end the application should be handled in the background.
+     * @since 4.9.3
+     */
+    boolean nonBlockingReports() default ACRAConstants.DEFAULT_NON_BLOCKING_REPORTS;
+
+    /**
+     * To use in combination with {@link #nonBlockingReports()}.
+     *
+     * @return maximum number of reports waiting to be handled.
+     * @since 4.9.3
+     */
+    int reportQueueCapacity() default ACRAConstants.DEFAULT_REPORT_QUEUE_CAPACITY;
+
+    /**
+     * To use in combination with {@link #nonBlockingReports()}.
+     *
+     * @return what happens to reports if {@link #reportQueueCapacity()} reports are already waiting.
+     * @since 4.9.3
+     */
+    @NonNull OverflowPolicy reportQueueOverflowPolicy() default OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * Limits how many reports which do not end the application are created for the same exception.
+     * <p>
+     * Reports with the same {@link ReportField#STACK_TRACE_HASH} share a token bucket holding up to this many tokens,
+     * refilled with {@link #rateLimitPerHour()} tokens per hour. Each report takes one token and is discarded if there is none left.
+     * Discarded reports are counted in {@link ReportField#SUPPRESSED_REPORTS} of the next report.
+     * Limits are kept in memory, so they start over when the application restarts.
+     * </p>
+     *
+     * @return maximum number of reports for the same exception in a burst, or 0 for no limit.
+     * @since 4.9.3
+     */
+    int rateLimitBurst() default ACRAConstants.DEFAULT_RATE_LIMIT_BURST;
+
+    /**
+     * To use in combination with {@link #rateLimitBurst()}.
+     *
+     * @return number of reports per hour allowed for the same exception after a burst (default 6).
+     * @since 4.9.3
+     */
+    int rateLimitPerHour() default ACRAConstants.DEFAULT_RATE_LIMIT_PER_HOUR;
+
+    /**
+     * Maximum number of reports which do not end the application per hour, regardless of their exception.
+     * Discarded reports are counted in {@link ReportField#SUPPRESSED_REPORTS} of the next report.
+     *
+     * @return maximum number of reports per hour, or 0 for no limit.
+     * @since 4.9.3
+     */
+    int globalReportsPerHour() default ACRAConstants.DEFAULT_GLOBAL_REPORTS_PER_HOUR;
+
+    /**
+     * Percentage of silent reports (see {@link org.acra.ErrorReporter#handleSilentException(Throwable)}) which are actually created.
+     * The others are discarded at random and counted in {@link ReportField#SUPPRESSED_REPORTS} of the next report.
+     *
+     * @return percentage of silent reports to keep (default 100).
+     * @since 4.9.3
+     */
+    int silentReportSamplingPercent() default ACRAConstants.DEFAULT_SILENT_REPORT_SAMPLING_PERCENT;
+
+    /**
+     * Number of consecutive crashes within {@link #crashLoopWindow()} of application start after which the application
+     * is considered to be in a crash loop.
+     * <p>
+     * In a crash loop, crashes only collect the minimal report content (see {@link #customMinimalReportContent()})
+     * and reports are not sent until the application runs longer than {@link #crashLoopWindow()}.
+     * </p>
+     *
+     * @return number of crashes during startup which make a crash loop, or 0 to disable crash loop detection.
+     * @since 4.9.3
+     */
+    int crashLoopThreshold() default ACRAConstants.DEFAULT_CRASH_LOOP_THRESHOLD;
+
+    /**
+     * To use in combination with {@link #crashLoopThreshold()}.
+     *
+     * @return time in milliseconds after application start during which a crash counts as a startup crash (default 10000).
+     * @since 4.9.3
+     */
+    int crashLoopWindow() default ACRAConstants.DEFAULT_CRASH_LOOP_WINDOW;
+
+    /**
+     * Set this to true to record logcat continuously instead of reading it when a crash occurs.
+     * <p>
+     * A single logcat process is started during {@link ACRA#init(android.app.Application)}, and its output is kept in a
+     * ring buffer of {@link #logcatBufferSize()} bytes. {@link ReportField#LOGCAT} is then taken from that buffer, so no process has
+     * to be started while the application is crashing. {@link #logcatArguments()} and {@link #logcatFilterByPid()} apply as usual.
+     * </p>
+     *
+     * @return true if logcat should be recorded continuously.
+     * @since 4.9.3
+     */
+    boolean continuousLogcat() default ACRAConstants.DEFAULT_CONTINUOUS_LOGCAT;
+
+    /**
+     * To use in combination with {@link #continuousLogcat()}.
+     *
+     * @return size in bytes of the buffer holding recorded logcat lines (default 64kB).
+     * @since 4.9.3
+     */
+    int logcatBufferSize() default ACRAConstants.DEFAULT_LOGCAT_BUFFER_SIZE;
+
+    /**
+     * Set this to true to collect only the log output written since the previous report of this process,
+     * or since application start for the first report. Consecutive reports then do not repeat the same lines.
+     * <p>
+     * "-t" in {@link #logcatArguments()} still limits the number of lines, the newest are kept.
+     * Requires API 21, older devices and {@link #continuousLogcat()} keep collecting the last lines.
+     * </p>
+     *
+     * @return true if logcat should be collected incrementally.
+     * @since 4.9.3
+     */
+    boolean logcatSinceLastReport() default ACRAConstants.DEFAULT_LOGCAT_SINCE_LAST_REPORT;
+
+    /**
+     * Oldest lines of {@link ReportField#LOGCAT}, {@link ReportField#EVENTSLOG} and {@link ReportField#RADIOLOG}
+     * are dropped until each fits into this size.
+     *
+     * @return maximum size in bytes of each logcat field, or 0 for no limit (default).
+     * @since 4.9.3
+     */
+    int logcatMaxBytes() default ACRAConstants.DEFAULT_LOGCAT_MAX_BYTES;
+
+    /**
+     * Literal strings like user names, ids or tokens which are replaced in {@link ReportField#LOGCAT}, {@link ReportField#EVENTSLOG},
+     * {@link ReportField#RADIOLOG}, {@link ReportField#APPLICATION_LOG} and {@link ReportField#CUSTOM_DATA} while they are collected.
+     *
+     * @return literal strings to remove from reports.
+     * @since 4.9.3
+     */
+    @NonNull String[] scrubbedKeywords() default {};
+
+    /**
+     * Regular expressions like email address patterns which are replaced in the same fields as {@link #scrubbedKeywords()}.
+     * Matching is done line by line, so a pattern cannot span lines.
+     *
+     * @return regular expressions matching text to remove from reports.
+     * @since 4.9.3
+     */
+    @NonNull String[] scrubbedPatterns() default {};
+
+    /**
+     * Number of breadcrumbs left with {@link org.acra.ErrorReporter#leaveBreadcrumb(String, String)} which are kept
+     * and reported in {@link ReportField#BREADCRUMBS}. Older breadcrumbs are overwritten.
+     *
+     * @return maximum number of breadcrumbs in a report, 0 to disable breadcrumbs (default 50).
+     * @since 4.9.3
+     */
+    int breadcrumbCapacity() default ACRAConstants.DEFAULT_BREADCRUMB_CAPACITY;
 }
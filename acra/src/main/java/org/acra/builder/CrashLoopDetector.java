@@ -0,0 +1,180 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.builder;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import org.acra.ACRA;
+import org.acra.ACRAConstants;
+import org.acra.config.ACRAConfiguration;
+import org.acra.util.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Detects if the application keeps crashing shortly after it started.
+ * <p>
+ * Crashes within {@link ACRAConfiguration#crashLoopWindow()} milliseconds of start are recorded in a small file
+ * as wall clock time and uptime at crash. Once the application runs longer than that, the record is cleared.
+ * With {@link ACRAConfiguration#crashLoopThreshold()} recorded crashes, the application is in a crash loop.
+ * </p>
+ *
+ * @since 4.9.3
+ */
+public final class CrashLoopDetector {
+    private static final String FILE_NAME = "ACRA-CRASH-LOOP";
+    /**
+     * Crashes older than this are not considered part of a crash loop, no matter how many launches happened in between
+     */
+    private static final long MAX_AGE = 60 * 60 * 1000;
+
+    private final File file;
+    private final int threshold;
+    private final long window;
+    private final long startTime = SystemClock.elapsedRealtime();
+    private final List<long[]> crashes = new ArrayList<long[]>();
+    private final List<Runnable> pending = new ArrayList<Runnable>();
+    private boolean crashLoop;
+
+    /**
+     * Loads the record of previous crashes and starts waiting for the application to survive its startup.
+     *
+     * @param context a context
+     * @param config  the configuration
+     */
+    public CrashLoopDetector(@NonNull Context context, @NonNull ACRAConfiguration config) {
+        file = new File(context.getFilesDir(), FILE_NAME);
+        threshold = config.crashLoopThreshold();
+        window = config.crashLoopWindow();
+        load();
+        crashLoop = crashes.size() >= threshold;
+        if (crashLoop) {
+            ACRA.log.w(LOG_TAG, "Application crashed " + crashes.size() + " times during startup, collecting minimal reports only");
+        }
+        if (!crashes.isEmpty()) {
+            new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    survived();
+                }
+            }, window);
+        }
+    }
+
+    /**
+     * @return if the application is in a crash loop
+     */
+    public synchronized boolean isInCrashLoop() {
+        return crashLoop;
+    }
+
+    /**
+     * Runs an action now, or once the application survived its startup if it is in a crash loop.
+     *
+     * @param runnable the action
+     */
+    public void whenStable(@NonNull Runnable runnable) {
+        synchronized (this) {
+            if (crashLoop) {
+                pending.add(runnable);
+                return;
+            }
+        }
+        runnable.run();
+    }
+
+    /**
+     * Records a crash if it happened within the startup window.
+     * Call this as early as possible when handling a crash, the process may die at any point afterwards.
+     */
+    public synchronized void recordCrash() {
+        final long uptime = SystemClock.elapsedRealtime() - startTime;
+        if (uptime > window) {
+            return;
+        }
+        crashes.add(new long[]{System.currentTimeMillis(), uptime});
+        while (crashes.size() > threshold) {
+            crashes.remove(0);
+        }
+        crashLoop = crashes.size() >= threshold;
+        final StringBuilder content = new StringBuilder();
+        for (long[] crash : crashes) {
+            content.append(crash[0]).append(' ').append(crash[1]).append('\n');
+        }
+        try {
+            IOUtils.writeStringToFile(file, content.toString());
+        } catch (IOException e) {
+            ACRA.log.w(LOG_TAG, "Could not record crash", e);
+        }
+    }
+
+    private void survived() {
+        final List<Runnable> runnables;
+        synchronized (this) {
+            crashes.clear();
+            if (!file.delete() && file.exists()) {
+                ACRA.log.w(LOG_TAG, "Could not delete crash record " + file);
+            }
+            crashLoop = false;
+            runnables = new ArrayList<Runnable>(pending);
+            pending.clear();
+        }
+        if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Application survived its startup");
+        for (Runnable runnable : runnables) {
+            runnable.run();
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            final InputStream in = new BufferedInputStream(new FileInputStream(file), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES);
+            try {
+                final long now = System.currentTimeMillis();
+                for (String line : IOUtils.streamToString(in).split("\n")) {
+                    final String[] values = line.trim().split(" ");
+                    if (values.length == 2) {
+                        final long timestamp = Long.parseLong(values[0]);
+                        if (now - timestamp < MAX_AGE) {
+                            crashes.add(new long[]{timestamp, Long.parseLong(values[1])});
+                        }
+                    }
+                }
+            } finally {
+                IOUtils.safeClose(in);
+            }
+        } catch (IOException e) {
+            ACRA.log.w(LOG_TAG, "Could not read crash record", e);
+        } catch (NumberFormatException e) {
+            ACRA.log.w(LOG_TAG, "Crash record is corrupt", e);
+            crashes.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.builder;
+
+/**
+ * Defines what happens to a report handled in the background if the queue is full.
+ *
+ * @since 4.9.3
+ * @see org.acra.annotation.ReportsCrashes#reportQueueOverflowPolicy()
+ */
+public enum OverflowPolicy {
+    /**
+     * The oldest queued report is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * The new report is discarded.
+     */
+    DROP_NEWEST,
+    /**
+     * The new report is discarded, but counted by exception class.
+     * The counts are attached to the next report as {@link org.acra.ReportField#SUPPRESSED_REPORTS}.
+     */
+    COUNT_ONLY
+}
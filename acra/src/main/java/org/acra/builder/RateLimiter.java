@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.builder;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import org.acra.ACRA;
+import org.acra.config.ACRAConfiguration;
+import org.acra.util.StackTraceUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Limits the number of reports which do not end the application.
+ * <ul>
+ * <li>Each stack trace hash has a token bucket holding up to {@link ACRAConfiguration#rateLimitBurst()} tokens,
+ * refilled with {@link ACRAConfiguration#rateLimitPerHour()} tokens per hour.</li>
+ * <li>At most {@link ACRAConfiguration#globalReportsPerHour()} reports pass per hour in total.</li>
+ * <li>Silent reports pass with a probability of {@link ACRAConfiguration#silentReportSamplingPercent()} percent.</li>
+ * </ul>
+ * Suppressed reports are counted and attached to the next report which passes.
+ *
+ * @since 4.9.3
+ */
+final class RateLimiter {
+    private static final long HOUR = 60 * 60 * 1000;
+    /**
+     * Buckets of the least recently seen hashes are evicted beyond this many hashes
+     */
+    private static final int MAX_BUCKETS = 64;
+
+    private final int burst;
+    private final int perHour;
+    private final int globalPerHour;
+    private final int samplingPercent;
+    private final Random random = new Random();
+
+    private final Map<String, Bucket> buckets = new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > MAX_BUCKETS;
+        }
+    };
+    private final Map<String, Integer> suppressed = new HashMap<String, Integer>();
+    private long windowStart;
+    private int windowCount;
+
+    RateLimiter(@NonNull ACRAConfiguration config) {
+        burst = config.rateLimitBurst();
+        perHour = config.rateLimitPerHour();
+        globalPerHour = config.globalReportsPerHour();
+        samplingPercent = config.silentReportSamplingPercent();
+    }
+
+    /**
+     * @param config the configuration
+     * @return if any limit is configured
+     */
+    static boolean isEnabled(@NonNull ACRAConfiguration config) {
+        return config.rateLimitBurst() > 0 || config.globalReportsPerHour() > 0 || config.silentReportSamplingPercent() < 100;
+    }
+
+    /**
+     * Decides whether a report may be handled. If it may, the counts of previously suppressed reports are attached to it.
+     *
+     * @param reportBuilder the report
+     * @return if the report should be handled
+     */
+    synchronized boolean tryAcquire(@NonNull ReportBuilder reportBuilder) {
+        final long now = SystemClock.elapsedRealtime();
+        if (reportBuilder.isSendSilently() && samplingPercent < 100 && random.nextInt(100) >= samplingPercent) {
+            return suppress(reportBuilder, "sampled out");
+        }
+        if (globalPerHour > 0) {
+            if (now - windowStart >= HOUR) {
+                windowStart = now;
+                windowCount = 0;
+            }
+            if (windowCount >= globalPerHour) {
+                return suppress(reportBuilder, "hourly limit reached");
+            }
+        }
+        if (burst > 0) {
+            final String hash = StackTraceUtils.getStackTraceHash(reportBuilder.getException());
+            Bucket bucket = buckets.get(hash);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                buckets.put(hash, bucket);
+            }
+            if (!bucket.tryTake(now, burst, perHour)) {
+                return suppress(reportBuilder, "rate limit of " + hash + " reached");
+            }
+        }
+        windowCount++;
+        if (!suppressed.isEmpty()) {
+            reportBuilder.suppressedReports(suppressed);
+            suppressed.clear();
+        }
+        return true;
+    }
+
+    private boolean suppress(@NonNull ReportBuilder reportBuilder, @NonNull String reason) {
+        if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Report suppressed: " + reason);
+        countSuppressed(suppressed, reportBuilder);
+        return false;
+    }
+
+    /**
+     * Counts a suppressed report by its exception class, as reported in {@link org.acra.ReportField#SUPPRESSED_REPORTS}.
+     * Counts the report already carried for earlier suppressed reports are kept as well.
+     *
+     * @param suppressed    the counts
+     * @param reportBuilder the suppressed report
+     */
+    static void countSuppressed(@NonNull Map<String, Integer> suppressed, @NonNull ReportBuilder reportBuilder) {
+        final String key = reportBuilder.getException() != null ? reportBuilder.getException().getClass().getName() : String.valueOf(reportBuilder.getMessage());
+        addCount(suppressed, key, 1);
+        for (Map.Entry<String, Integer> entry : reportBuilder.getSuppressedReports().entrySet()) {
+            addCount(suppressed, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @param counts the counts to add to
+     * @param key    the exception class
+     * @param count  the number of suppressed reports to add
+     */
+    static void addCount(@NonNull Map<String, Integer> counts, @NonNull String key, int count) {
+        final Integer previous = counts.get(key);
+        counts.put(key, previous == null ? count : previous + count);
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(int tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        boolean tryTake(long now, int capacity, int perHour) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * perHour / (double) HOUR);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
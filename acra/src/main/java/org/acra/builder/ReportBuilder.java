@@ -1,10 +1,13 @@
 package org.acra.builder;
 
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Fluent API used to assemble the different options used for a crash report.
@@ -13,13 +16,22 @@ import java.util.Map;
  */
 public final class ReportBuilder {
 
+    private static final int MAX_CONCURRENT_CRASH_FRAMES = 5;
+
     private String message;
     private Thread uncaughtExceptionThread;
     private Throwable exception;
     private final Map<String, String> customData = new HashMap<String, String>();
+    @Nullable
+    private Map<String, String> globalCustomData;
 
     private boolean sendSilently = false;
     private boolean endApplication = false;
+    private final long creationTime = SystemClock.uptimeMillis();
+    private final List<String> concurrentCrashes = new CopyOnWriteArrayList<String>();
+    private final Map<String, Integer> suppressedReports = new HashMap<String, Integer>();
+    @Nullable
+    private volatile Runnable onHandled;
 
     /**
      * Set the error message to be reported.
@@ -107,6 +119,27 @@ public final class ReportBuilder {
         return customData;
     }
 
+    /**
+     * Captures the global custom data at the time the report was requested, for reports which are collected later.
+     * Values set with {@link #customData(String, String)} still take precedence.
+     *
+     * @param globalCustomData a copy of the global custom data
+     * @return the updated {@code ReportBuilder}
+     */
+    @NonNull
+    public ReportBuilder globalCustomData(@NonNull Map<String, String> globalCustomData) {
+        this.globalCustomData = globalCustomData;
+        return this;
+    }
+
+    /**
+     * @return the global custom data captured with {@link #globalCustomData(Map)}, or null if the current global custom data should be used
+     */
+    @Nullable
+    public Map<String, String> getGlobalCustomData() {
+        return globalCustomData;
+    }
+
     /**
      * Forces the report to be sent silently, ignoring the default interaction mode set in the config
      *
@@ -137,6 +170,93 @@ public final class ReportBuilder {
         return endApplication;
     }
 
+    /**
+     * @return uptime at which this builder was created, i.e. when handling of the report started
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Attaches an exception which was not caught on another thread while this report was being handled.
+     * Only a compact description is kept: the thread, the exception and its first few stack frames.
+     * May be called from any thread.
+     *
+     * @param thread the thread on which the exception occurred
+     * @param e      the exception
+     * @return the updated {@code ReportBuilder}
+     */
+    @NonNull
+    public ReportBuilder concurrentCrash(@Nullable Thread thread, @NonNull Throwable e) {
+        final StringBuilder description = new StringBuilder();
+        description.append(thread != null ? thread.getName() : "unknown thread").append(": ").append(e);
+        final StackTraceElement[] stackTrace = e.getStackTrace();
+        for (int i = 0; i < Math.min(stackTrace.length, MAX_CONCURRENT_CRASH_FRAMES); i++) {
+            description.append("\n\tat ").append(stackTrace[i]);
+        }
+        if (stackTrace.length > MAX_CONCURRENT_CRASH_FRAMES) {
+            description.append("\n\t... ").append(stackTrace.length - MAX_CONCURRENT_CRASH_FRAMES).append(" more");
+        }
+        concurrentCrashes.add(description.toString());
+        return this;
+    }
+
+    /**
+     * @return descriptions of all exceptions attached with {@link #concurrentCrash(Thread, Throwable)}
+     */
+    @NonNull
+    public List<String> getConcurrentCrashes() {
+        return concurrentCrashes;
+    }
+
+    /**
+     * Attaches the number of reports which were not handled because the report queue was full.
+     * Counts are added to those already attached.
+     *
+     * @param suppressedReports number of suppressed reports by exception class
+     * @return the updated {@code ReportBuilder}
+     * @see OverflowPolicy#COUNT_ONLY
+     */
+    @NonNull
+    public ReportBuilder suppressedReports(@NonNull Map<String, Integer> suppressedReports) {
+        for (Map.Entry<String, Integer> entry : suppressedReports.entrySet()) {
+            RateLimiter.addCount(this.suppressedReports, entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @NonNull
+    public Map<String, Integer> getSuppressedReports() {
+        return suppressedReports;
+    }
+
+    /**
+     * Sets an action to run once handling of this report has completely finished, including any toast, dialog and ending of the application.
+     * It is not run if the application is ended, as nothing runs after that.
+     *
+     * @param onHandled the action to run
+     * @return the updated {@code ReportBuilder}
+     */
+    @NonNull
+    public ReportBuilder onHandled(@Nullable Runnable onHandled) {
+        this.onHandled = onHandled;
+        return this;
+    }
+
+    /**
+     * Runs the action set with {@link #onHandled(Runnable)}, at most once.
+     */
+    void handled() {
+        final Runnable action;
+        synchronized (this) {
+            action = onHandled;
+            onHandled = null;
+        }
+        if (action != null) {
+            action.run();
+        }
+    }
+
     /**
      * Assembles and sends the crash report.
      *
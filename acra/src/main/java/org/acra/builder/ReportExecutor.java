@@ -8,6 +8,7 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Debug;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.NotificationCompat;
@@ -15,6 +16,7 @@ import android.widget.Toast;
 
 import org.acra.ACRA;
 import org.acra.ACRAConstants;
+import org.acra.ReportField;
 import org.acra.ReportingInteractionMode;
 import org.acra.collector.CrashReportData;
 import org.acra.collector.CrashReportDataFactory;
@@ -22,13 +24,18 @@ import org.acra.config.ACRAConfiguration;
 import org.acra.dialog.CrashReportDialog;
 import org.acra.file.CrashReportPersister;
 import org.acra.file.ReportLocator;
+import org.acra.model.BooleanElement;
+import org.acra.model.ComplexElement;
+import org.acra.model.Element;
 import org.acra.prefs.SharedPreferencesFactory;
 import org.acra.sender.SenderServiceStarter;
 import org.acra.util.ProcessFinisher;
 import org.acra.util.ToastSender;
+import org.json.JSONException;
 
 import java.io.File;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.acra.ACRA.LOG_TAG;
 import static org.acra.ReportField.IS_SILENT;
@@ -51,6 +58,10 @@ public final class ReportExecutor {
 
     private final ReportPrimer reportPrimer;
     private final ProcessFinisher processFinisher;
+    @Nullable
+    private final RateLimiter rateLimiter;
+    @Nullable
+    private final CrashLoopDetector crashLoopDetector;
 
     private boolean enabled = false;
 
@@ -61,13 +72,15 @@ public final class ReportExecutor {
 
     public ReportExecutor(@NonNull Context context, @NonNull ACRAConfiguration config,
                           @NonNull CrashReportDataFactory crashReportDataFactory, @Nullable Thread.UncaughtExceptionHandler defaultExceptionHandler,
-                          @NonNull ReportPrimer reportPrimer, @NonNull ProcessFinisher processFinisher) {
+                          @NonNull ReportPrimer reportPrimer, @NonNull ProcessFinisher processFinisher, @Nullable CrashLoopDetector crashLoopDetector) {
         this.context = context;
         this.config = config;
         this.crashReportDataFactory = crashReportDataFactory;
         this.defaultExceptionHandler = defaultExceptionHandler;
         this.reportPrimer = reportPrimer;
         this.processFinisher = processFinisher;
+        this.rateLimiter = RateLimiter.isEnabled(config) ? new RateLimiter(config) : null;
+        this.crashLoopDetector = crashLoopDetector;
     }
 
     /**
@@ -118,9 +131,21 @@ public final class ReportExecutor {
 
         if (!enabled) {
             ACRA.log.v(LOG_TAG, "ACRA is disabled. Report not sent.");
+            reportBuilder.handled();
             return;
         }
 
+        // crashes are never limited, the application is going down anyway
+        if (rateLimiter != null && !reportBuilder.isEndApplication() && !rateLimiter.tryAcquire(reportBuilder)) {
+            reportBuilder.handled();
+            return;
+        }
+
+        // filled while collecting, so the watchdog can store what has been collected so far
+        final CrashReportData crashReportData = new CrashReportData();
+        final AtomicBoolean reportStored = new AtomicBoolean();
+        final Watchdog watchdog = startWatchdog(reportBuilder, crashReportData, reportStored);
+
         // Prime this crash report with any extra data.
         reportPrimer.primeReport(context, reportBuilder);
 
@@ -167,23 +192,54 @@ public final class ReportExecutor {
             // that the Toast can be read by the user.
         }
 
-        final CrashReportData crashReportData = crashReportDataFactory.createCrashData(reportBuilder);
+        final boolean crashLoop = reportBuilder.isEndApplication() && crashLoopDetector != null && crashLoopDetector.isInCrashLoop();
+        final File reportFile;
+        if (config.oomSafeMode() && isOutOfMemory(reportBuilder.getException())) {
+            // Collecting everything would most likely cause another OutOfMemoryError
+            if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Out of memory, collecting minimal report only");
+            crashReportDataFactory.createCrashData(reportBuilder, config.minimalReportContent(), crashReportData);
+            reportFile = getReportFileName(crashReportData);
+        } else if (crashLoop) {
+            // the sooner the application restarts, the sooner it might get past whatever is crashing it
+            if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Crash loop, collecting minimal report only");
+            crashReportDataFactory.createCrashData(reportBuilder, config.minimalReportContent(), crashReportData);
+            reportFile = getReportFileName(crashReportData);
+        } else if (config.persistMinimalReportFirst()) {
+            // Store a minimal report first, so there is something to send if the process dies while collecting
+            crashReportDataFactory.createCrashData(reportBuilder, config.minimalReportContent(), crashReportData);
+            reportFile = getReportFileName(crashReportData);
+            saveCrashReportFile(reportFile, crashReportData);
+            // fields of the minimal report are not collected again, so the full report keeps its id and dates
+            crashReportDataFactory.createCrashData(reportBuilder, config.reportContent(), crashReportData);
+        } else {
+            crashReportDataFactory.createCrashData(reportBuilder, config.reportContent(), crashReportData);
+            reportFile = getReportFileName(crashReportData);
+        }
 
         // Always write the report file
 
-        final File reportFile = getReportFileName(crashReportData);
-        saveCrashReportFile(reportFile, crashReportData);
+        addTotalTime(crashReportData, reportBuilder);
+        synchronized (crashReportData) {
+            saveCrashReportFile(reportFile, crashReportData);
+            reportStored.set(true);
+        }
 
         final SharedPreferences prefs = new SharedPreferencesFactory(context, config).create();
         if (reportingInteractionMode == ReportingInteractionMode.SILENT
                 || reportingInteractionMode == ReportingInteractionMode.TOAST
                 || prefs.getBoolean(ACRA.PREF_ALWAYS_ACCEPT, false)) {
 
-            // Approve and then send reports now
-            startSendingReports(sendOnlySilentReports);
+            if (crashLoop) {
+                // Only approve, the report is sent once the application survives its startup
+                approveReport(reportFile);
+            } else {
+                // Approve and then send reports now
+                startSendingReports(sendOnlySilentReports);
+            }
             if ((reportingInteractionMode == ReportingInteractionMode.SILENT) && !reportBuilder.isEndApplication()) {
                 // Report is being sent silently and the application is not ending.
                 // So no need to wait around for the sender to complete.
+                reportBuilder.handled();
                 return;
             }
 
@@ -214,15 +270,69 @@ public final class ReportExecutor {
                             ACRA.log.d(LOG_TAG, "Interrupted while waiting for Toast to end.", e1);
                     }
                     if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Finished waiting for Toast");
-                    dialogAndEnd(reportBuilder, reportFile, showDirectDialog);
+                    dialogAndEnd(reportBuilder, reportFile, showDirectDialog, watchdog);
                 }
             }.start();
         } else {
-            dialogAndEnd(reportBuilder, reportFile, showDirectDialog);
+            dialogAndEnd(reportBuilder, reportFile, showDirectDialog, watchdog);
+        }
+    }
+
+    /**
+     * Starts a watchdog which ends the application if handling an application ending report takes longer than
+     * {@link ACRAConfiguration#crashHandlingTimeout()}.
+     *
+     * @param reportBuilder   the report builder
+     * @param crashReportData the report being collected
+     * @param reportStored    set once the complete report has been stored
+     * @return the started watchdog, or null if none is needed
+     */
+    @Nullable
+    private Watchdog startWatchdog(@NonNull final ReportBuilder reportBuilder, @NonNull final CrashReportData crashReportData, @NonNull final AtomicBoolean reportStored) {
+        // a paused debugger would trigger the watchdog
+        if (config.crashHandlingTimeout() <= 0 || !reportBuilder.isEndApplication() || Debug.isDebuggerConnected()) {
+            return null;
+        }
+        final Watchdog watchdog = new Watchdog(config.crashHandlingTimeout(), new Runnable() {
+            @Override
+            public void run() {
+                synchronized (crashReportData) {
+                    if (!reportStored.get()) {
+                        storeTruncatedReport(crashReportData);
+                    }
+                }
+                endApplication(reportBuilder.getUncaughtExceptionThread(), reportBuilder.getException());
+                reportBuilder.handled();
+            }
+        });
+        watchdog.start();
+        return watchdog;
+    }
+
+    /**
+     * Stores what has been collected so far, marked as {@link ReportField#IS_TRUNCATED}.
+     *
+     * @param crashReportData the report being collected, possibly still modified by another thread
+     */
+    private void storeTruncatedReport(@NonNull CrashReportData crashReportData) {
+        try {
+            // EnumMap iterators never throw ConcurrentModificationException, so copying is safe even while collecting
+            final CrashReportData truncated = new CrashReportData();
+            truncated.putAll(crashReportData);
+            if (config.reportContent().contains(ReportField.IS_TRUNCATED)) {
+                truncated.put(ReportField.IS_TRUNCATED, new BooleanElement(true));
+            }
+            saveCrashReportFile(getReportFileName(truncated), truncated);
+        } catch (RuntimeException e) {
+            ACRA.log.e(LOG_TAG, "Could not store truncated report", e);
         }
     }
 
-    private void dialogAndEnd(@NonNull ReportBuilder reportBuilder, @NonNull File reportFile, boolean shouldShowDialog) {
+    private void dialogAndEnd(@NonNull ReportBuilder reportBuilder, @NonNull File reportFile, boolean shouldShowDialog, @Nullable Watchdog watchdog) {
+        if (watchdog != null && watchdog.isTimedOut()) {
+            // the watchdog is already ending the application
+            return;
+        }
         if (shouldShowDialog) {
             // Create a new activity task with the confirmation dialog.
             // This new task will be persisted on application restart
@@ -254,6 +364,11 @@ public final class ReportExecutor {
                 endApplication(reportBuilder.getUncaughtExceptionThread(), reportBuilder.getException());
             }
         }
+        // only reached if the process survived, e.g. because the default handler returned or a debugger is attached
+        if (watchdog != null) {
+            watchdog.finish();
+        }
+        reportBuilder.handled();
     }
 
     /**
@@ -286,6 +401,18 @@ public final class ReportExecutor {
         }
     }
 
+    /**
+     * Moves a report to the approved reports without sending it.
+     *
+     * @param reportFile the report to approve
+     */
+    private void approveReport(@NonNull File reportFile) {
+        final File approvedReport = new File(new ReportLocator(context).getApprovedFolder(), reportFile.getName());
+        if (!reportFile.renameTo(approvedReport)) {
+            ACRA.log.w(LOG_TAG, "Could not rename approved report from " + reportFile + " to " + approvedReport);
+        }
+    }
+
     /**
      * Creates a status bar notification.
      *
@@ -346,6 +473,37 @@ public final class ReportExecutor {
         return new File(reportLocator.getUnapprovedFolder(), fileName);
     }
 
+    /**
+     * @param t the reported throwable
+     * @return if t or any of its causes is an {@link OutOfMemoryError}
+     */
+    private static boolean isOutOfMemory(@Nullable Throwable t) {
+        // limit depth in case of cyclic causes
+        for (int i = 0; t != null && i < 10; i++, t = t.getCause()) {
+            if (t instanceof OutOfMemoryError) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the time elapsed since the report builder was created to {@link ReportField#COLLECTION_METRICS}, if it was collected.
+     *
+     * @param crashData     the collected data
+     * @param reportBuilder the builder of this report
+     */
+    private void addTotalTime(@NonNull CrashReportData crashData, @NonNull ReportBuilder reportBuilder) {
+        final Element metrics = crashData.get(ReportField.COLLECTION_METRICS);
+        if (metrics instanceof ComplexElement) {
+            try {
+                ((ComplexElement) metrics).put("totalTime", SystemClock.uptimeMillis() - reportBuilder.getCreationTime());
+            } catch (JSONException e) {
+                ACRA.log.w(LOG_TAG, "Could not add total time to collection metrics", e);
+            }
+        }
+    }
+
     /**
      * When a report can't be sent, it is saved here in a file in the root of
      * the application private directory.
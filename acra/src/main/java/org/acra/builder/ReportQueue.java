@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.builder;
+
+import android.support.annotation.NonNull;
+
+import org.acra.ACRA;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Hands reports which do not end the application to a single background thread,
+ * so handling an exception costs the calling thread nothing but enqueueing it.
+ *
+ * @since 4.9.3
+ */
+public final class ReportQueue {
+    private final ReportExecutor reportExecutor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final LinkedList<ReportBuilder> queue = new LinkedList<ReportBuilder>();
+    private final Map<String, Integer> suppressed = new HashMap<String, Integer>();
+    private Thread worker;
+
+    /**
+     * @param reportExecutor executor which handles the queued reports
+     * @param capacity       maximum number of queued reports
+     * @param overflowPolicy what to do with reports if the queue is full
+     */
+    public ReportQueue(@NonNull ReportExecutor reportExecutor, int capacity, @NonNull OverflowPolicy overflowPolicy) {
+        this.reportExecutor = reportExecutor;
+        this.capacity = Math.max(capacity, 1);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Queues a report. Never blocks.
+     *
+     * @param reportBuilder the report to handle in the background
+     */
+    public synchronized void enqueue(@NonNull ReportBuilder reportBuilder) {
+        if (queue.size() >= capacity) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    queue.removeFirst();
+                    ACRA.log.w(LOG_TAG, "Report queue is full, dropped the oldest report");
+                    break;
+                case DROP_NEWEST:
+                    ACRA.log.w(LOG_TAG, "Report queue is full, dropped the newest report");
+                    return;
+                case COUNT_ONLY:
+                    RateLimiter.countSuppressed(suppressed, reportBuilder);
+                    return;
+            }
+        }
+        queue.addLast(reportBuilder);
+        if (worker == null) {
+            startWorker();
+        } else {
+            notifyAll();
+        }
+    }
+
+    private void startWorker() {
+        worker = new Thread("ACRA-report-queue") {
+            @Override
+            public void run() {
+                try {
+                    drain();
+                } finally {
+                    // an Error ends this thread, so the next report needs a new one
+                    synchronized (ReportQueue.this) {
+                        if (worker == this) {
+                            worker = null;
+                            if (!queue.isEmpty()) {
+                                startWorker();
+                            }
+                        }
+                    }
+                }
+            }
+        };
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void drain() {
+        while (true) {
+            final ReportBuilder reportBuilder;
+            synchronized (this) {
+                while (queue.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                reportBuilder = queue.removeFirst();
+                if (!suppressed.isEmpty()) {
+                    reportBuilder.suppressedReports(suppressed);
+                    suppressed.clear();
+                }
+            }
+            try {
+                reportExecutor.execute(reportBuilder);
+            } catch (RuntimeException e) {
+                ACRA.log.e(LOG_TAG, "Failed to handle queued report", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.builder;
+
+import android.support.annotation.NonNull;
+
+import org.acra.ACRA;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Runs an action if crash handling is not finished within a deadline.
+ * Exactly one of {@link #finish()} and the timeout action wins.
+ * Crash handling is only finished once the application has been ended, so the watchdog also guards the final steps.
+ *
+ * @since 4.9.3
+ */
+final class Watchdog {
+    private final long timeout;
+    private final Runnable onTimeout;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicBoolean done = new AtomicBoolean();
+    private volatile boolean timedOut;
+
+    /**
+     * @param timeout   milliseconds after {@link #start()} at which onTimeout is run
+     * @param onTimeout the action to run if {@link #finish()} was not called in time
+     */
+    Watchdog(long timeout, @NonNull Runnable onTimeout) {
+        this.timeout = timeout;
+        this.onTimeout = onTimeout;
+    }
+
+    void start() {
+        final Thread thread = new Thread("ACRA-watchdog") {
+            @Override
+            public void run() {
+                try {
+                    if (finished.await(timeout, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Watchdog interrupted", e);
+                }
+                if (done.compareAndSet(false, true)) {
+                    timedOut = true;
+                    ACRA.log.w(LOG_TAG, "Crash handling did not finish within " + timeout + " ms");
+                    onTimeout.run();
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return true if the timeout action took over, in which case the caller must not continue
+     */
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Marks crash handling as finished.
+     *
+     * @return false if the timeout action already took over, in which case the caller must not continue
+     */
+    boolean finish() {
+        if (done.compareAndSet(false, true)) {
+            finished.countDown();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * A list with a maximum number of elements, backed by a single array.
+ * When adding elements to the end of the list, first elements in the list are overwritten if the maximum size is reached.
+ * Unlike {@link BoundedLinkedList}, adding does not allocate once the list is full.
+ * Only appending and replacing elements is supported.
+ *
+ * @since 4.9.3
+ */
+public final class BoundedRingBuffer<E> extends AbstractList<E> {
+
+    private final Object[] elements;
+    private int head;
+    private int size;
+
+    public BoundedRingBuffer(int maxSize) {
+        elements = new Object[Math.max(maxSize, 0)];
+    }
+
+    @Override
+    public boolean add(E object) {
+        modCount++;
+        if (elements.length == 0) {
+            return true;
+        }
+        if (size < elements.length) {
+            elements[(head + size) % elements.length] = object;
+            size++;
+        } else {
+            elements[head] = object;
+            head = (head + 1) % elements.length;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int location) {
+        if (location < 0 || location >= size) {
+            throw new IndexOutOfBoundsException("Index: " + location + ", Size: " + size);
+        }
+        return (E) elements[(head + location) % elements.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E set(int location, E object) {
+        if (location < 0 || location >= size) {
+            throw new IndexOutOfBoundsException("Index: " + location + ", Size: " + size);
+        }
+        final int index = (head + location) % elements.length;
+        final E previous = (E) elements[index];
+        elements[index] = object;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+    }
+}
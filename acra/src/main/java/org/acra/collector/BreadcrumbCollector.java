@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+
+import org.acra.ReportField;
+import org.acra.builder.ReportBuilder;
+import org.acra.model.Element;
+import org.acra.model.StringElement;
+import org.acra.util.Scrubber;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the breadcrumbs left through {@link org.acra.ErrorReporter#leaveBreadcrumb(String, String)}.
+ *
+ * @since 4.9.3
+ */
+final class BreadcrumbCollector extends Collector {
+    private final Breadcrumbs breadcrumbs;
+    private final Scrubber scrubber;
+
+    BreadcrumbCollector(@NonNull Breadcrumbs breadcrumbs, @NonNull Scrubber scrubber) {
+        super(ReportField.BREADCRUMBS);
+        this.breadcrumbs = breadcrumbs;
+        this.scrubber = scrubber;
+    }
+
+    @Override
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+        return super.shouldCollect(crashReportFields, collect, reportBuilder) && !breadcrumbs.isEmpty();
+    }
+
+    @NonNull
+    @Override
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+        final List<String> lines = breadcrumbs.getLines();
+        if (scrubber.isEnabled()) {
+            for (int i = 0; i < lines.size(); i++) {
+                lines.set(i, scrubber.scrub(lines.get(i)));
+            }
+        }
+        return new StringElement(TextUtils.join("\n", lines));
+    }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
+
+    @NonNull
+    @Override
+    public Priority getPriority() {
+        // the trail should end where the crash happened, not include what collecting other fields leaves behind
+        return Priority.HIGHEST;
+    }
+}
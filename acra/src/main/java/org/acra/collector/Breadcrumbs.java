@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.ACRAConstants;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the latest breadcrumbs in a ring of fixed capacity, allocated up front.
+ * <p>
+ * Recording claims a slot with a single atomic increment and publishes an immutable entry into it, so it never blocks or locks.
+ * Each entry carries the sequence number it was recorded with. When a slot was overwritten by a newer entry,
+ * or has been claimed but not yet written, the sequence does not match and the slot is skipped when reading.
+ * </p>
+ *
+ * @since 4.9.3
+ */
+final class Breadcrumbs {
+    private final AtomicReferenceArray<Breadcrumb> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param capacity number of breadcrumbs to keep, 0 to discard all
+     */
+    Breadcrumbs(int capacity) {
+        slots = new AtomicReferenceArray<Breadcrumb>(Math.max(capacity, 0));
+    }
+
+    /**
+     * Records a breadcrumb. Safe to call from any thread.
+     *
+     * @param category optional category, e.g. "ui" or "network"
+     * @param message  what happened
+     */
+    void add(@Nullable String category, @NonNull String message) {
+        final int capacity = slots.length();
+        if (capacity == 0) {
+            return;
+        }
+        final long number = sequence.getAndIncrement();
+        slots.set((int) (number % capacity), new Breadcrumb(number, System.currentTimeMillis(), category, message));
+    }
+
+    /**
+     * @return if no breadcrumb was recorded yet
+     */
+    boolean isEmpty() {
+        return sequence.get() == 0;
+    }
+
+    /**
+     * @return the latest breadcrumbs, oldest first, one per line
+     */
+    @NonNull
+    List<String> getLines() {
+        final int capacity = slots.length();
+        final long end = sequence.get();
+        final List<String> lines = new ArrayList<String>((int) Math.min(end, capacity));
+        final SimpleDateFormat format = new SimpleDateFormat(ACRAConstants.DATE_TIME_FORMAT_STRING, Locale.ENGLISH);
+        for (long number = Math.max(0, end - capacity); number < end; number++) {
+            final Breadcrumb breadcrumb = slots.get((int) (number % capacity));
+            if (breadcrumb != null && breadcrumb.number == number) {
+                final StringBuilder line = new StringBuilder(format.format(breadcrumb.timestamp)).append(' ');
+                if (breadcrumb.category != null) {
+                    line.append('[').append(breadcrumb.category).append("] ");
+                }
+                lines.add(line.append(breadcrumb.message).toString());
+            }
+        }
+        return lines;
+    }
+
+    private static final class Breadcrumb {
+        private final long number;
+        private final long timestamp;
+        @Nullable
+        private final String category;
+        @NonNull
+        private final String message;
+
+        Breadcrumb(long number, long timestamp, @Nullable String category, @NonNull String message) {
+            this.number = number;
+            this.timestamp = timestamp;
+            this.category = category;
+            this.message = message;
+        }
+    }
+}
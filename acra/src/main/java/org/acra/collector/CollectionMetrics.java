@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.ReportField;
+import org.acra.model.ComplexElement;
+import org.acra.model.Element;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records time, size and outcome of each collector and field while a report is collected.
+ * Collectors running in parallel may record concurrently, so all access is synchronized.
+ *
+ * @since 4.9.3
+ */
+final class CollectionMetrics {
+    static final String COLLECTORS = "collectors";
+    static final String FIELDS = "fields";
+    static final String COLLECTION_TIME = "collectionTime";
+    static final String TIME = "time";
+    static final String SIZE = "size";
+    static final String OUTCOME = "outcome";
+
+    enum Outcome {
+        OK,
+        EXCEPTION,
+        SKIPPED,
+        TIMEOUT,
+        REUSED;
+
+        @NonNull
+        String jsonValue() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private final Map<String, Entry> collectors = new LinkedHashMap<String, Entry>();
+    private final Map<String, Entry> fields = new LinkedHashMap<String, Entry>();
+
+    synchronized void record(@NonNull Collector collector, long time, long size, @NonNull Outcome outcome) {
+        put(collectors, collector.getClass().getSimpleName(), new Entry(time, size, outcome));
+    }
+
+    synchronized void record(@NonNull ReportField field, long time, long size, @NonNull Outcome outcome) {
+        put(fields, field.name(), new Entry(time, size, outcome));
+    }
+
+    /**
+     * a collector which finishes after it timed out must not overwrite its timeout entry
+     */
+    private static void put(@NonNull Map<String, Entry> map, @NonNull String key, @NonNull Entry entry) {
+        final Entry old = map.get(key);
+        if (old == null || old.outcome != Outcome.TIMEOUT) {
+            map.put(key, entry);
+        }
+    }
+
+    /**
+     * @param collectionTime the time the whole collection took
+     * @return an element containing all recorded metrics
+     */
+    @NonNull
+    synchronized Element toElement(long collectionTime) {
+        final ComplexElement element = new ComplexElement();
+        try {
+            element.put(COLLECTION_TIME, collectionTime);
+            element.put(COLLECTORS, toJson(collectors));
+            element.put(FIELDS, toJson(fields));
+        } catch (JSONException ignored) {
+            // keys are never null and all values are finite
+        }
+        return element;
+    }
+
+    @NonNull
+    private static JSONObject toJson(@NonNull Map<String, Entry> map) throws JSONException {
+        final JSONObject json = new JSONObject();
+        for (Map.Entry<String, Entry> entry : map.entrySet()) {
+            final JSONObject value = new JSONObject();
+            value.put(TIME, entry.getValue().time);
+            value.put(SIZE, entry.getValue().size);
+            value.put(OUTCOME, entry.getValue().outcome.jsonValue());
+            json.put(entry.getKey(), value);
+        }
+        return json;
+    }
+
+    /**
+     * Counts the bytes an element takes when encoded as UTF-8, without actually encoding it.
+     *
+     * @param element the element to measure
+     * @return the encoded size in bytes
+     */
+    static long sizeOf(@Nullable Element element) {
+        if (element == null) {
+            return 0;
+        }
+        final String s = String.valueOf(element.value());
+        long size = 0;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    private static final class Entry {
+        private final long time;
+        private final long size;
+        private final Outcome outcome;
+
+        Entry(long time, long size, @NonNull Outcome outcome) {
+            this.time = time;
+            this.size = size;
+            this.outcome = outcome;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.support.annotation.NonNull;
+
+import org.acra.ReportField;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The collectors to run, in order of priority, each with the fields it is responsible for.
+ * Every field a collector is responsible for is part of its step, whether configured or not, so {@link Collector#shouldCollect} still decides what is collected.
+ * Only fields which must not be collected at all, like those already present in the report, are left out.
+ * Plans are computed once, keeping the lookup of which collector owns which field off the crash path.
+ *
+ * @since 4.9.3
+ */
+final class CollectionPlan {
+    private final List<Step> steps;
+
+    /**
+     * @param collectors  all collectors in descending order of priority
+     * @param fieldOwners the collector responsible for each field
+     * @param excluded    fields which must not be collected
+     */
+    CollectionPlan(@NonNull List<Collector> collectors, @NonNull Map<ReportField, Collector> fieldOwners, @NonNull Collection<ReportField> excluded) {
+        final List<Step> steps = new ArrayList<Step>();
+        for (Collector collector : collectors) {
+            final List<ReportField> owned = new ArrayList<ReportField>();
+            for (ReportField field : collector.canCollect()) {
+                if (fieldOwners.get(field) == collector && !excluded.contains(field)) {
+                    owned.add(field);
+                }
+            }
+            if (!owned.isEmpty()) {
+                steps.add(new Step(collector, owned.toArray(new ReportField[owned.size()])));
+            }
+        }
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    @NonNull
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    static final class Step {
+        private final Collector collector;
+        private final ReportField[] fields;
+
+        private Step(@NonNull Collector collector, @NonNull ReportField[] fields) {
+            this.collector = collector;
+            this.fields = fields;
+        }
+
+        @NonNull
+        Collector getCollector() {
+            return collector;
+        }
+
+        /**
+         * @return the fields this collector is responsible for in this plan, including those it might not collect
+         */
+        @NonNull
+        ReportField[] getFields() {
+            return fields;
+        }
+    }
+}
@@ -28,11 +28,61 @@ import java.util.Set;
  * Represents a collector.
  * Maintains information on which fields can be collected by this collector.
  * Validates constraints in which a field should (not) be collected.
+ * <p>
+ * Applications may provide their own collectors through {@link CollectorFactory}.
+ * Collectors are created once during {@link org.acra.ACRA#init(android.app.Application)} and run in order of their {@link #getPriority()}.
+ * A collector filling a field which was already filled by a collector with higher priority is skipped for this field.
+ * </p>
  *
  * @author F43nd1r
  * @since 4.9.1
  */
-abstract class Collector {
+public abstract class Collector {
+
+    /**
+     * Estimated time a collector needs. Used to decide which collectors still fit into
+     * {@link org.acra.annotation.ReportsCrashes#collectionTimeBudget()} and which may run in parallel.
+     *
+     * @since 4.9.3
+     */
+    public enum Cost {
+        /**
+         * in-memory data only, always collected
+         */
+        CHEAP(1),
+        /**
+         * reflection, IPC with system services or small file reads
+         */
+        MODERATE(50),
+        /**
+         * spawns processes or reads large amounts of data
+         */
+        EXPENSIVE(500);
+
+        private final long estimatedMillis;
+
+        Cost(long estimatedMillis) {
+            this.estimatedMillis = estimatedMillis;
+        }
+
+        public long getEstimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+
+    /**
+     * Order in which collectors run. Collectors with equal priority run in order of registration.
+     *
+     * @since 4.9.3
+     */
+    public enum Priority {
+        HIGHEST,
+        HIGH,
+        NORMAL,
+        LOW,
+        LOWEST
+    }
+
     private final ReportField[] reportFields;
 
     /**
@@ -41,7 +91,7 @@ abstract class Collector {
      *
      * @param reportFields the supported reportFields
      */
-    Collector(@Size(min = 1) @NonNull ReportField... reportFields) {
+    protected Collector(@Size(min = 1) @NonNull ReportField... reportFields) {
         this.reportFields = reportFields;
     }
 
@@ -49,7 +99,7 @@ abstract class Collector {
      * @return all fields this collector can collect
      */
     @NonNull
-    final ReportField[] canCollect() {
+    public final ReportField[] canCollect() {
         return reportFields;
     }
 
@@ -61,10 +111,30 @@ abstract class Collector {
      * @param reportBuilder     the current reportBuilder
      * @return if this field should be collected now
      */
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return crashReportFields.contains(collect);
     }
 
+    /**
+     * collectors which are not {@link Cost#CHEAP} may be run in parallel and are subject to timeouts and the collection budget
+     *
+     * @return the estimated cost of this collector
+     * @since 4.9.3
+     */
+    @NonNull
+    public Cost getCost() {
+        return Cost.MODERATE;
+    }
+
+    /**
+     * @return the priority of this collector
+     * @since 4.9.3
+     */
+    @NonNull
+    public Priority getPriority() {
+        return Priority.NORMAL;
+    }
+
     /**
      * will only be called if shouldCollect returned true for this ReportField
      *
@@ -73,5 +143,5 @@ abstract class Collector {
      * @return Element of what was collected
      */
     @NonNull
-    abstract Element collect(ReportField reportField, ReportBuilder reportBuilder);
+    protected abstract Element collect(ReportField reportField, ReportBuilder reportBuilder);
 }
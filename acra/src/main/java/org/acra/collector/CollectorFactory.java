@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import org.acra.config.ACRAConfiguration;
+
+import java.util.List;
+
+/**
+ * Provides additional {@link Collector}s.
+ * Configure with {@link org.acra.annotation.ReportsCrashes#collectorFactoryClasses()}.
+ * Implementations need a public no-argument constructor.
+ *
+ * @since 4.9.3
+ */
+public interface CollectorFactory {
+
+    /**
+     * Called during {@link org.acra.ACRA#init(android.app.Application)}. May be called more than once, each call has to return new instances.
+     *
+     * @param context Application context.
+     * @param config  Configuration to use when collecting.
+     * @return collectors to add to the report.
+     */
+    @NonNull
+    List<Collector> create(@NonNull Context context, @NonNull ACRAConfiguration config);
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+
+import org.acra.ReportField;
+import org.acra.builder.ReportBuilder;
+import org.acra.model.Element;
+import org.acra.model.StringElement;
+
+import java.util.Set;
+
+/**
+ * Collects exceptions which occurred on other threads while this report was handled.
+ * Runs last, so exceptions arriving during collection are included as well.
+ *
+ * @since 4.9.3
+ */
+final class ConcurrentCrashCollector extends Collector {
+    ConcurrentCrashCollector() {
+        super(ReportField.CONCURRENT_CRASHES);
+    }
+
+    @Override
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+        return super.shouldCollect(crashReportFields, collect, reportBuilder) && !reportBuilder.getConcurrentCrashes().isEmpty();
+    }
+
+    @NonNull
+    @Override
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+        return new StringElement(TextUtils.join("\n\n", reportBuilder.getConcurrentCrashes()));
+    }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
+
+    @NonNull
+    @Override
+    public Priority getPriority() {
+        return Priority.LOWEST;
+    }
+}
@@ -15,15 +15,17 @@
  */
 package org.acra.collector;
 
+import android.content.ComponentCallbacks;
 import android.content.Context;
 import android.content.res.Configuration;
+import android.os.Build;
+import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.util.SparseArray;
 
 import org.acra.ACRA;
 import org.acra.ACRAConstants;
 import org.acra.ReportField;
-import org.acra.builder.ReportBuilder;
 import org.acra.model.ComplexElement;
 import org.acra.model.Element;
 import org.json.JSONException;
@@ -45,7 +47,7 @@ import static org.acra.ACRA.LOG_TAG;
  *
  * @author Kevin Gaudin and F43nd1r
  */
-public final class ConfigurationCollector extends Collector {
+public final class ConfigurationCollector extends SnapshotCollector {
 
     private static final String SUFFIX_MASK = "_MASK";
     private static final String FIELD_SCREENLAYOUT = "screenLayout";
@@ -71,9 +73,27 @@ public final class ConfigurationCollector extends Collector {
         this.initialConfiguration = initialConfiguration;
     }
 
+    @Override
+    boolean registerListeners(@NonNull Handler handler) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            return false;
+        }
+        context.getApplicationContext().registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+                refresh(ReportField.CRASH_CONFIGURATION);
+            }
+
+            @Override
+            public void onLowMemory() {
+            }
+        });
+        return true;
+    }
+
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    Element collectFresh(@NonNull ReportField reportField) {
         switch (reportField) {
             case INITIAL_CONFIGURATION:
                 return initialConfiguration;
@@ -257,4 +277,10 @@ public final class ConfigurationCollector extends Collector {
             return ACRAConstants.NOT_AVAILABLE;
         }
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
 }
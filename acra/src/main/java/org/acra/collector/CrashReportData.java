@@ -54,7 +54,8 @@ public final class CrashReportData extends EnumMap<ReportField, Element> {
      * @return the named property value, or {@code null} if it can't be found.
      */
     public String getProperty(@NonNull ReportField key) {
-        return super.get(key).toString();
+        final Element element = super.get(key);
+        return element != null ? element.toString() : null;
     }
 
     public void putString(@NonNull ReportField key, String value) {
@@ -18,21 +18,45 @@ package org.acra.collector;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.acra.ACRA;
+import org.acra.ACRAConstants;
 import org.acra.ReportField;
 import org.acra.builder.ReportBuilder;
 import org.acra.config.ACRAConfiguration;
+import org.acra.model.ComplexElement;
 import org.acra.model.Element;
+import org.acra.util.InstanceCreator;
 import org.acra.util.PackageManagerWrapper;
+import org.acra.util.Scrubber;
+import org.json.JSONException;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.acra.ACRA.LOG_TAG;
 
@@ -50,9 +74,22 @@ public final class CrashReportDataFactory {
     private final Context context;
     private final ACRAConfiguration config;
     private final SharedPreferences prefs;
-    private final Map<String, String> customParameters = new LinkedHashMap<String, String>();
+    /**
+     * Written by application threads and read by collector threads, so it must only be iterated while holding its lock
+     */
+    private final Map<String, String> customParameters = Collections.synchronizedMap(new LinkedHashMap<String, String>());
+    private final Breadcrumbs breadcrumbs;
     private final Calendar appStartDate;
     private final Element initialConfiguration;
+    private final List<Collector> collectors;
+    private final Map<ReportField, Collector> fieldOwners = new EnumMap<ReportField, Collector>(ReportField.class);
+    private final CollectionPlan defaultPlan;
+    @Nullable
+    private final ExecutorService executor;
+    @Nullable
+    private final StaticFieldCache staticFieldCache;
+    @Nullable
+    private final ExpiringFieldCache expiringFieldCache;
 
     public CrashReportDataFactory(@NonNull Context context, @NonNull ACRAConfiguration config,
                                   @NonNull SharedPreferences prefs, @NonNull Calendar appStartDate,
@@ -62,6 +99,68 @@ public final class CrashReportDataFactory {
         this.prefs = prefs;
         this.appStartDate = appStartDate;
         this.initialConfiguration = initialConfiguration;
+        this.breadcrumbs = new Breadcrumbs(config.breadcrumbCapacity());
+        this.collectors = getCollectorsOrdered(context, config, prefs, appStartDate, initialConfiguration, customParameters, breadcrumbs);
+        for (Collector collector : collectors) {
+            for (ReportField field : collector.canCollect()) {
+                if (!fieldOwners.containsKey(field)) {
+                    fieldOwners.put(field, collector);
+                }
+            }
+        }
+        this.defaultPlan = new CollectionPlan(collectors, fieldOwners, config.sendTimeReportContent());
+        this.executor = config.parallelCollection() ? createExecutor() : null;
+        if (config.snapshotCollection()) {
+            startSnapshots();
+        }
+        this.expiringFieldCache = config.silentReportCacheTtl() > 0 ? new ExpiringFieldCache(config.silentReportCacheTtl()) : null;
+        if (config.cacheStaticFields()) {
+            staticFieldCache = new StaticFieldCache(context, config.reportContent());
+            staticFieldCache.prepare(collectors);
+        } else {
+            staticFieldCache = null;
+        }
+    }
+
+    /**
+     * Starts a thread on which all {@link SnapshotCollector}s maintain their snapshots.
+     */
+    private void startSnapshots() {
+        final HandlerThread thread = new HandlerThread("ACRA-snapshots", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        final Handler handler = new Handler(thread.getLooper());
+        for (Collector collector : collectors) {
+            if (collector instanceof SnapshotCollector) {
+                try {
+                    ((SnapshotCollector) collector).startSnapshots(config.reportContent(), handler);
+                } catch (RuntimeException e) {
+                    ACRA.log.w(LOG_TAG, "Could not start snapshots for " + collector.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the pool on which blocking collectors run if {@link ACRAConfiguration#parallelCollection()} is enabled.
+     * The threads are started immediately, so there is no need to start them while handling a crash.
+     *
+     * @return a pool with all threads started
+     */
+    @NonNull
+    private static ExecutorService createExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(ACRAConstants.PARALLEL_COLLECTOR_THREADS, ACRAConstants.PARALLEL_COLLECTOR_THREADS,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull Runnable r) {
+                final Thread thread = new Thread(r, "ACRA-collector-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.prestartAllCoreThreads();
+        return executor;
     }
 
     /**
@@ -82,6 +181,16 @@ public final class CrashReportDataFactory {
         return customParameters.put(key, value);
     }
 
+    /**
+     * Records a breadcrumb to be reported with the next reports.
+     *
+     * @param category optional category of the breadcrumb.
+     * @param message  what happened.
+     */
+    public void leaveBreadcrumb(@Nullable String category, @NonNull String message) {
+        breadcrumbs.add(category, message);
+    }
+
     /**
      * Removes a key/value pair from the custom data field.
      *
@@ -99,6 +208,16 @@ public final class CrashReportDataFactory {
         customParameters.clear();
     }
 
+    /**
+     * @return a copy of all global custom data, which can be handed to another thread
+     */
+    @NonNull
+    public Map<String, String> copyCustomData() {
+        synchronized (customParameters) {
+            return new LinkedHashMap<String, String>(customParameters);
+        }
+    }
+
     /**
      * Gets the current value for a key in the custom data field.
      *
@@ -117,29 +236,82 @@ public final class CrashReportDataFactory {
      */
     @NonNull
     public CrashReportData createCrashData(@NonNull ReportBuilder builder) {
-        final CrashReportData crashReportData = new CrashReportData();
+        return createCrashData(builder, config.reportContent());
+    }
+
+    /**
+     * Collects crash data limited to the given fields.
+     * Fields configured in {@link ACRAConfiguration#sendTimeReportContent()} are left out.
+     *
+     * @param builder ReportBuilder for whom to crete the crash report.
+     * @param fields  the fields to collect.
+     * @return CrashReportData identifying the current crash.
+     */
+    @NonNull
+    public CrashReportData createCrashData(@NonNull ReportBuilder builder, @NonNull Set<ReportField> fields) {
+        return createCrashData(builder, fields, new CrashReportData());
+    }
+
+    /**
+     * Collects crash data limited to the given fields into an existing report.
+     * Fields already present in the report are not collected again.
+     * The report is filled while collecting, so other threads may look at what has been collected so far.
+     *
+     * @param builder         ReportBuilder for whom to crete the crash report.
+     * @param fields          the fields to collect.
+     * @param crashReportData the report to fill.
+     * @return crashReportData, for convenience.
+     */
+    @NonNull
+    public CrashReportData createCrashData(@NonNull final ReportBuilder builder, @NonNull Set<ReportField> fields, @NonNull CrashReportData crashReportData) {
         try {
-            final Set<ReportField> crashReportFields = config.reportContent();
-            final List<Collector> collectors = getCollectorsOrdered();
+            final long start = SystemClock.uptimeMillis();
+            final Set<ReportField> crashReportFields = getFieldsToCollect(fields, crashReportData);
+            final CollectionPlan plan = crashReportData.isEmpty() ? defaultPlan : new CollectionPlan(collectors, fieldOwners, getExcludedFields(crashReportData));
+            final CollectionMetrics metrics = crashReportFields.contains(ReportField.COLLECTION_METRICS) ? new CollectionMetrics() : null;
+            // only silent reports may reuse fields, but all reports refresh them
+            final Map<ReportField, Long> reusedFields = expiringFieldCache != null && builder.isSendSilently()
+                    ? Collections.synchronizedMap(new EnumMap<ReportField, Long>(ReportField.class)) : null;
+            final Map<CollectionPlan.Step, Future<CrashReportData>> parallelCollections = new LinkedHashMap<CollectionPlan.Step, Future<CrashReportData>>();
+
+            final int budget = config.collectionTimeBudget();
 
-            //this will iterate over all collectors in descending order of priority
-            for (Collector collector : collectors) {
+            //this will iterate over all needed collectors in descending order of priority
+            for (final CollectionPlan.Step step : plan.getSteps()) {
+                final Collector collector = step.getCollector();
                 //catch absolutely everything possible here so no collector obstructs the others
                 try {
-                    for (ReportField reportField : collector.canCollect()) {
-                        try {
-                            if (collector.shouldCollect(crashReportFields, reportField, builder)) {
-                                crashReportData.put(reportField, collector.collect(reportField, builder));
+                    final Collector.Cost cost = collector.getCost();
+                    if (budget > 0 && cost != Collector.Cost.CHEAP && SystemClock.uptimeMillis() - start + cost.getEstimatedMillis() > budget) {
+                        if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Skipping collector " + collector.getClass().getSimpleName() + ", collection time budget exceeded");
+                        skip(step, crashReportFields, metrics);
+                    } else if (executor != null && cost != Collector.Cost.CHEAP) {
+                        parallelCollections.put(step, executor.submit(new Callable<CrashReportData>() {
+                            @Override
+                            public CrashReportData call() {
+                                final CrashReportData data = new CrashReportData();
+                                collect(step, crashReportFields, builder, data, metrics, reusedFields);
+                                return data;
                             }
-                        } catch (RuntimeException e) {
-                            ACRA.log.e(LOG_TAG, "Error while retrieving " + reportField.name() + " data", e);
-                        }
+                        }));
+                    } else {
+                        collect(step, crashReportFields, builder, crashReportData, metrics, reusedFields);
                     }
                 } catch (RuntimeException e) {
                     ACRA.log.e(LOG_TAG, "Error in collector " + collector.getClass().getSimpleName(), e);
                 }
             }
 
+            awaitParallelCollections(parallelCollections, crashReportFields, crashReportData, metrics, start, budget);
+
+            if (reusedFields != null && !reusedFields.isEmpty() && crashReportFields.contains(ReportField.REUSED_FIELDS)) {
+                crashReportData.put(ReportField.REUSED_FIELDS, toElement(reusedFields));
+            }
+
+            if (metrics != null) {
+                crashReportData.put(ReportField.COLLECTION_METRICS, metrics.toElement(SystemClock.uptimeMillis() - start));
+            }
+
         } catch (RuntimeException e) {
             ACRA.log.e(LOG_TAG, "Error while retrieving crash data", e);
         }
@@ -147,10 +319,201 @@ public final class CrashReportDataFactory {
         return crashReportData;
     }
 
-    private List<Collector> getCollectorsOrdered() {
+    /**
+     * @param fields          fields to collect
+     * @param crashReportData fields collected so far
+     * @return fields which are neither collected at send time nor already present
+     */
+    @NonNull
+    private Set<ReportField> getFieldsToCollect(@NonNull Set<ReportField> fields, @NonNull CrashReportData crashReportData) {
+        if (config.sendTimeReportContent().isEmpty() && crashReportData.isEmpty()) {
+            return fields;
+        }
+        final Set<ReportField> result = new LinkedHashSet<ReportField>(fields);
+        result.removeAll(config.sendTimeReportContent());
+        result.removeAll(crashReportData.keySet());
+        return result;
+    }
+
+    /**
+     * @param crashReportData fields collected so far
+     * @return fields which are either collected at send time or already present
+     */
+    @NonNull
+    private Set<ReportField> getExcludedFields(@NonNull CrashReportData crashReportData) {
+        final Set<ReportField> result = new LinkedHashSet<ReportField>(config.sendTimeReportContent());
+        result.addAll(crashReportData.keySet());
+        return result;
+    }
+
+    /**
+     * Collects all fields of a collector which should be collected.
+     *
+     * @param step              the collector to use and the fields it is responsible for
+     * @param crashReportFields configured fields
+     * @param builder           the current reportBuilder
+     * @param crashReportData   the data to put the collected fields in
+     * @param metrics           records time, size and outcome of the collector and each field, may be null
+     * @param reusedFields      records the age of fields reused from an earlier report, null if fields may not be reused
+     */
+    private void collect(@NonNull CollectionPlan.Step step, @NonNull Set<ReportField> crashReportFields, @NonNull ReportBuilder builder,
+                         @NonNull CrashReportData crashReportData, @Nullable CollectionMetrics metrics, @Nullable Map<ReportField, Long> reusedFields) {
+        final Collector collector = step.getCollector();
+        long collectorTime = 0;
+        long collectorSize = 0;
+        boolean collectedAny = false;
+        boolean failedAny = false;
+        for (ReportField reportField : step.getFields()) {
+            final long start = SystemClock.uptimeMillis();
+            try {
+                final Element cached = staticFieldCache != null ? staticFieldCache.get(reportField) : null;
+                if (cached != null) {
+                    crashReportData.put(reportField, cached);
+                    if (metrics != null) {
+                        metrics.record(reportField, 0, CollectionMetrics.sizeOf(cached), CollectionMetrics.Outcome.OK);
+                    }
+                } else if (collector.shouldCollect(crashReportFields, reportField, builder)) {
+                    final boolean cacheable = expiringFieldCache != null && expiringFieldCache.isCacheable(reportField);
+                    final ExpiringFieldCache.Entry reusable = cacheable && reusedFields != null ? expiringFieldCache.get(reportField) : null;
+                    if (reusable != null) {
+                        crashReportData.put(reportField, reusable.getElement());
+                        reusedFields.put(reportField, reusable.getAge());
+                        if (metrics != null) {
+                            metrics.record(reportField, 0, CollectionMetrics.sizeOf(reusable.getElement()), CollectionMetrics.Outcome.REUSED);
+                        }
+                        continue;
+                    }
+                    final Element element = collector.collect(reportField, builder);
+                    crashReportData.put(reportField, element);
+                    if (cacheable) {
+                        expiringFieldCache.put(reportField, element);
+                    }
+                    collectedAny = true;
+                    if (metrics != null) {
+                        final long time = SystemClock.uptimeMillis() - start;
+                        final long size = CollectionMetrics.sizeOf(element);
+                        collectorTime += time;
+                        collectorSize += size;
+                        metrics.record(reportField, time, size, CollectionMetrics.Outcome.OK);
+                    }
+                } else if (metrics != null && crashReportFields.contains(reportField)) {
+                    metrics.record(reportField, 0, 0, CollectionMetrics.Outcome.SKIPPED);
+                }
+            } catch (RuntimeException e) {
+                ACRA.log.e(LOG_TAG, "Error while retrieving " + reportField.name() + " data", e);
+                failedAny = true;
+                if (metrics != null) {
+                    final long time = SystemClock.uptimeMillis() - start;
+                    collectorTime += time;
+                    metrics.record(reportField, time, 0, CollectionMetrics.Outcome.EXCEPTION);
+                }
+            }
+        }
+        if (metrics != null && (collectedAny || failedAny)) {
+            metrics.record(collector, collectorTime, collectorSize, failedAny ? CollectionMetrics.Outcome.EXCEPTION : CollectionMetrics.Outcome.OK);
+        }
+    }
+
+    @NonNull
+    private static Element toElement(@NonNull Map<ReportField, Long> reusedFields) {
+        final ComplexElement element = new ComplexElement();
+        synchronized (reusedFields) {
+            for (Map.Entry<ReportField, Long> entry : reusedFields.entrySet()) {
+                try {
+                    element.put(entry.getKey().name(), entry.getValue());
+                } catch (JSONException ignored) {
+                    // field names are never null
+                }
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Records a collector which was not run because it would exceed the collection time budget.
+     *
+     * @param step              the skipped collector and its fields
+     * @param crashReportFields configured fields
+     * @param metrics           records the skipped collector and its fields, may be null
+     */
+    private static void skip(@NonNull CollectionPlan.Step step, @NonNull Set<ReportField> crashReportFields, @Nullable CollectionMetrics metrics) {
+        if (metrics != null) {
+            for (ReportField reportField : step.getFields()) {
+                if (crashReportFields.contains(reportField)) {
+                    metrics.record(reportField, 0, 0, CollectionMetrics.Outcome.SKIPPED);
+                }
+            }
+            metrics.record(step.getCollector(), 0, 0, CollectionMetrics.Outcome.SKIPPED);
+        }
+    }
+
+    /**
+     * Waits for collectors running in parallel until the configured timeout is reached.
+     * Fields of collectors which did not finish in time are reported as {@link ACRAConstants#TIMED_OUT}.
+     *
+     * @param parallelCollections pending collections
+     * @param crashReportFields   configured fields
+     * @param crashReportData     the data to put the collected fields in
+     * @param metrics             records collectors which timed out, may be null
+     * @param start               uptime at which collection started
+     * @param budget              total collection time budget, or 0 if there is none
+     */
+    private void awaitParallelCollections(@NonNull Map<CollectionPlan.Step, Future<CrashReportData>> parallelCollections, @NonNull Set<ReportField> crashReportFields,
+                                          @NonNull CrashReportData crashReportData, @Nullable CollectionMetrics metrics, long start, int budget) {
+        long deadline = SystemClock.uptimeMillis() + config.collectorTimeout();
+        if (budget > 0) {
+            deadline = Math.min(deadline, start + budget);
+        }
+        for (Map.Entry<CollectionPlan.Step, Future<CrashReportData>> entry : parallelCollections.entrySet()) {
+            final Collector collector = entry.getKey().getCollector();
+            final Future<CrashReportData> future = entry.getValue();
+            try {
+                crashReportData.putAll(future.get(Math.max(0, deadline - SystemClock.uptimeMillis()), TimeUnit.MILLISECONDS));
+            } catch (ExecutionException e) {
+                ACRA.log.e(LOG_TAG, "Error in collector " + collector.getClass().getSimpleName(), e.getCause());
+            } catch (TimeoutException e) {
+                ACRA.log.w(LOG_TAG, "Collector " + collector.getClass().getSimpleName() + " timed out");
+                future.cancel(true);
+                final long time = SystemClock.uptimeMillis() - start;
+                if (metrics != null) {
+                    metrics.record(collector, time, 0, CollectionMetrics.Outcome.TIMEOUT);
+                }
+                for (ReportField reportField : entry.getKey().getFields()) {
+                    if (crashReportFields.contains(reportField) && !crashReportData.containsKey(reportField)) {
+                        crashReportData.put(reportField, ACRAConstants.TIMED_OUT);
+                        if (metrics != null) {
+                            metrics.record(reportField, time, 0, CollectionMetrics.Outcome.TIMEOUT);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                ACRA.log.w(LOG_TAG, "Interrupted while waiting for collector " + collector.getClass().getSimpleName());
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Creates new instances of all collectors.
+     *
+     * @param context              Application context.
+     * @param config               Configuration to use when collecting.
+     * @param prefs                ACRA's SharedPreferences.
+     * @param appStartDate         time the application started.
+     * @param initialConfiguration configuration of the application when it started.
+     * @param customParameters     global custom data.
+     * @param breadcrumbs          breadcrumbs left by the application.
+     * @return all built in and configured collectors in descending order of priority
+     */
+    @NonNull
+    static List<Collector> getCollectorsOrdered(@NonNull Context context, @NonNull ACRAConfiguration config, @NonNull SharedPreferences prefs,
+                                                @NonNull Calendar appStartDate, @NonNull Element initialConfiguration, @NonNull Map<String, String> customParameters,
+                                                @NonNull Breadcrumbs breadcrumbs) {
         final List<Collector> collectors = new ArrayList<Collector>();
         final PackageManagerWrapper pm = new PackageManagerWrapper(context);
-        collectors.add(new LogCatCollector(config, pm));
+        final Scrubber scrubber = new Scrubber(config);
+        collectors.add(new LogCatCollector(config, pm, appStartDate, scrubber));
         collectors.add(new DropBoxCollector(context, config, pm));
         collectors.add(new StacktraceCollector());
         collectors.add(new TimeCollector(appStartDate));
@@ -159,15 +522,32 @@ public final class CrashReportDataFactory {
         collectors.add(new MemoryInfoCollector());
         collectors.add(new ReflectionCollector(context, config));
         collectors.add(new DisplayManagerCollector(context));
-        collectors.add(new CustomDataCollector(customParameters));
+        collectors.add(new CustomDataCollector(customParameters, scrubber));
         collectors.add(new SharedPreferencesCollector(context, config, prefs));
         collectors.add(new DeviceFeaturesCollector(context));
         collectors.add(new SettingsCollector(context, config));
         collectors.add(new PackageManagerCollector(pm));
         collectors.add(new DeviceIdCollector(context, pm, prefs));
-        collectors.add(new LogFileCollector(context, config));
+        collectors.add(new LogFileCollector(context, config, scrubber));
         collectors.add(new MediaCodecListCollector());
         collectors.add(new ThreadCollector());
+        collectors.add(new ConcurrentCrashCollector());
+        collectors.add(new SuppressedReportsCollector());
+        collectors.add(new BreadcrumbCollector(breadcrumbs, scrubber));
+        for (CollectorFactory factory : new InstanceCreator().create(config.collectorFactoryClasses())) {
+            try {
+                collectors.addAll(factory.create(context, config));
+            } catch (RuntimeException e) {
+                ACRA.log.e(LOG_TAG, "Failed to create collectors of " + factory.getClass().getName(), e);
+            }
+        }
+        // stable sort, so built in collectors keep their order
+        Collections.sort(collectors, new Comparator<Collector>() {
+            @Override
+            public int compare(Collector c1, Collector c2) {
+                return c1.getPriority().compareTo(c2.getPriority());
+            }
+        });
         return collectors;
     }
 }
\ No newline at end of file
@@ -22,8 +22,10 @@ import org.acra.ReportField;
 import org.acra.builder.ReportBuilder;
 import org.acra.model.ComplexElement;
 import org.acra.model.Element;
+import org.acra.util.Scrubber;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -34,30 +36,60 @@ import java.util.Map;
  */
 final class CustomDataCollector extends Collector {
     private final Map<String, String> customParameters;
+    private final Scrubber scrubber;
 
-    CustomDataCollector(Map<String, String> customParameters){
+    CustomDataCollector(Map<String, String> customParameters, Scrubber scrubber){
         super(ReportField.CUSTOM_DATA);
         this.customParameters = customParameters;
+        this.scrubber = scrubber;
     }
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
-        return createCustomInfoElement(reportBuilder.getCustomData());
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+        return createCustomInfoElement(reportBuilder.getGlobalCustomData(), reportBuilder.getCustomData());
     }
 
 
     /**
      * Generates the Element which is posted in the single custom data field
      *
+     * @param globalCustomData global custom data captured when the report was requested, or null to use the current global custom data
+     * @param reportCustomData custom data of this report
      * @return An Element with  key-value-pairs for the supplied custom data.
      */
     @NonNull
-    private Element createCustomInfoElement(@Nullable Map<String, String> reportCustomData) {
-        Map<String, String> params = customParameters;
+    private Element createCustomInfoElement(@Nullable Map<String, String> globalCustomData, @Nullable Map<String, String> reportCustomData) {
+        Map<String, String> params;
+        if (globalCustomData != null) {
+            params = new LinkedHashMap<String, String>(globalCustomData);
+        } else {
+            // application threads may modify the global custom data at any time
+            synchronized (customParameters) {
+                params = new LinkedHashMap<String, String>(customParameters);
+            }
+        }
         if (reportCustomData != null) {
-            params = new HashMap<String, String>(params);
             params.putAll(reportCustomData);
         }
+        if (scrubber.isEnabled()) {
+            final Map<String, String> scrubbed = new HashMap<String, String>();
+            for (Map.Entry<String, String> entry : params.entrySet()) {
+                scrubbed.put(entry.getKey(), entry.getValue() != null ? scrubber.scrub(entry.getValue()) : null);
+            }
+            params = scrubbed;
+        }
         return new ComplexElement(params);
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
+
+    @NonNull
+    @Override
+    public Priority getPriority() {
+        return Priority.HIGH;
+    }
 }
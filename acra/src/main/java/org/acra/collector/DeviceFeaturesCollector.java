@@ -50,7 +50,7 @@ final class DeviceFeaturesCollector extends Collector {
      */
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         final ComplexElement result = new ComplexElement();
         try {
             final PackageManager pm = context.getPackageManager();
@@ -54,14 +54,14 @@ final class DeviceIdCollector extends Collector {
     }
 
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return super.shouldCollect(crashReportFields, collect, reportBuilder) && prefs.getBoolean(ACRA.PREF_ENABLE_DEVICE_ID, true)
                 && pm.hasPermission(Manifest.permission.READ_PHONE_STATE);
     }
 
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         final String result = getDeviceId();
         return result != null ? new StringElement(result) : ACRAConstants.NOT_AVAILABLE;
     }
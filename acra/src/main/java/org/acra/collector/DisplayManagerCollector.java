@@ -18,7 +18,9 @@ package org.acra.collector;
 import android.content.Context;
 import android.graphics.Point;
 import android.graphics.Rect;
+import android.hardware.display.DisplayManager;
 import android.os.Build;
+import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.support.v4.hardware.display.DisplayManagerCompat;
 import android.util.DisplayMetrics;
@@ -28,7 +30,6 @@ import android.view.Surface;
 
 import org.acra.ACRA;
 import org.acra.ReportField;
-import org.acra.builder.ReportBuilder;
 import org.acra.model.ComplexElement;
 import org.acra.model.Element;
 import org.json.JSONArray;
@@ -43,7 +44,7 @@ import java.util.Arrays;
  *
  * @author (original author unknown) & F43nd1r
  */
-final class DisplayManagerCollector extends Collector {
+final class DisplayManagerCollector extends SnapshotCollector {
     private final Context context;
     private final SparseArray<String> flagNames = new SparseArray<String>();
 
@@ -53,9 +54,34 @@ final class DisplayManagerCollector extends Collector {
     }
 
 
+    @Override
+    boolean registerListeners(@NonNull Handler handler) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return false;
+        }
+        final DisplayManager displayManager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+        displayManager.registerDisplayListener(new DisplayManager.DisplayListener() {
+            @Override
+            public void onDisplayAdded(int displayId) {
+                refresh(ReportField.DISPLAY);
+            }
+
+            @Override
+            public void onDisplayRemoved(int displayId) {
+                refresh(ReportField.DISPLAY);
+            }
+
+            @Override
+            public void onDisplayChanged(int displayId) {
+                refresh(ReportField.DISPLAY);
+            }
+        }, handler);
+        return true;
+    }
+
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    Element collectFresh(@NonNull ReportField reportField) {
         final ComplexElement result = new ComplexElement();
         for (Display display : DisplayManagerCompat.getInstance(context).getDisplays()) {
             try {
@@ -230,5 +256,4 @@ final class DisplayManagerCollector extends Collector {
         }
         return result.toString();
     }
-
 }
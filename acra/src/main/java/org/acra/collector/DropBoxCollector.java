@@ -77,7 +77,7 @@ final class DropBoxCollector extends Collector {
      */
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         try {
             final DropBoxManager dropbox = (DropBoxManager) context.getSystemService(Context.DROPBOX_SERVICE);
 
@@ -132,7 +132,13 @@ final class DropBoxCollector extends Collector {
     }
 
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return super.shouldCollect(crashReportFields, collect, reportBuilder) && (pm.hasPermission(Manifest.permission.READ_LOGS) || Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN);
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.EXPENSIVE;
+    }
 }
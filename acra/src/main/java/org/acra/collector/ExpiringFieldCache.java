@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.ACRAConstants;
+import org.acra.ReportField;
+import org.acra.model.Element;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the output of expensive fields for a short time, so a burst of silent reports
+ * does not run logcat, dumpsys or DropBox queries again for every single report.
+ *
+ * @since 4.9.3
+ */
+final class ExpiringFieldCache {
+    /**
+     * Fields which are expensive to collect and change slowly enough to be shared by reports created shortly after each other
+     */
+    private static final Set<ReportField> EXPENSIVE_FIELDS = EnumSet.of(ReportField.LOGCAT, ReportField.EVENTSLOG, ReportField.RADIOLOG,
+            ReportField.DUMPSYS_MEMINFO, ReportField.DROPBOX, ReportField.SETTINGS_SYSTEM, ReportField.SETTINGS_SECURE, ReportField.SETTINGS_GLOBAL);
+
+    private final long ttl;
+    private final Map<ReportField, Entry> entries = new EnumMap<ReportField, Entry>(ReportField.class);
+
+    /**
+     * @param ttl time in milliseconds an element may be reused
+     */
+    ExpiringFieldCache(long ttl) {
+        this.ttl = ttl;
+    }
+
+    boolean isCacheable(@NonNull ReportField field) {
+        return EXPENSIVE_FIELDS.contains(field);
+    }
+
+    /**
+     * @param field the field to look up
+     * @return the cached entry, or null if there is none or it expired
+     */
+    @Nullable
+    synchronized Entry get(@NonNull ReportField field) {
+        final Entry entry = entries.get(field);
+        if (entry != null && entry.getAge() > ttl) {
+            entries.remove(field);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Remembers an element, unless it is incomplete. Reusing a failed, timed out or truncated collection would spread it over all following reports.
+     *
+     * @param field   the collected field
+     * @param element the collected element
+     */
+    synchronized void put(@NonNull ReportField field, @NonNull Element element) {
+        if (isComplete(element)) {
+            entries.put(field, new Entry(element));
+        }
+    }
+
+    private static boolean isComplete(@NonNull Element element) {
+        if (element == ACRAConstants.NOT_AVAILABLE || element == ACRAConstants.TIMED_OUT) {
+            return false;
+        }
+        final String content = element.toString();
+        // notes about truncated output are always appended as the last line
+        return content == null || !content.startsWith(ACRAConstants.TRUNCATED_NOTE, content.lastIndexOf('\n') + 1);
+    }
+
+    static final class Entry {
+        private final Element element;
+        private final long time;
+
+        private Entry(@NonNull Element element) {
+            this.element = element;
+            this.time = SystemClock.uptimeMillis();
+        }
+
+        @NonNull
+        Element getElement() {
+            return element;
+        }
+
+        /**
+         * @return milliseconds since this entry was collected
+         */
+        long getAge() {
+            return SystemClock.uptimeMillis() - time;
+        }
+    }
+}
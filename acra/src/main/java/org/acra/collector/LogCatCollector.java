@@ -27,17 +27,28 @@ import org.acra.ACRAConstants;
 import org.acra.ReportField;
 import org.acra.annotation.ReportsCrashes;
 import org.acra.builder.ReportBuilder;
+import org.acra.collections.BoundedRingBuffer;
 import org.acra.config.ACRAConfiguration;
 import org.acra.model.Element;
 import org.acra.model.StringElement;
 import org.acra.util.IOUtils;
 import org.acra.util.PackageManagerWrapper;
+import org.acra.util.ProcessRunner;
+import org.acra.util.Scrubber;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import static org.acra.ACRA.LOG_TAG;
 
@@ -48,21 +59,56 @@ import static org.acra.ACRA.LOG_TAG;
  * @author Kevin Gaudin & F43nd1r
  */
 final class LogCatCollector extends Collector {
+    /**
+     * First API level whose logcat supports --pid and -D
+     */
+    static final int API_NOUGAT = 24;
+    private static final String DIVIDER = "--------- ";
+    private static final long NON_BLOCKING_READ_TIMEOUT = 3000;
+    private static final ReportField[] LOG_FIELDS = {ReportField.LOGCAT, ReportField.EVENTSLOG, ReportField.RADIOLOG};
 
     private final ACRAConfiguration config;
     private final PackageManagerWrapper pm;
+    @Nullable
+    private final LogCatRecorder recorder;
+    private final Calendar appStartDate;
+    private final Scrubber scrubber;
+    /**
+     * Time each field was last collected at, used as start of the next window with {@link ACRAConfiguration#logcatSinceLastReport()}
+     */
+    private final Map<ReportField, Long> lastCollected = new EnumMap<ReportField, Long>(ReportField.class);
+    /**
+     * Fields collected together for the current report but not handed out yet, keyed weakly by the report,
+     * so neither the report nor its fields are kept alive once the report has been handled
+     */
+    private final Map<ReportBuilder, Map<ReportField, Element>> demultiplexed = new WeakHashMap<ReportBuilder, Map<ReportField, Element>>();
+    /**
+     * Logcat fields collected at crash time, which may be read together with a single logcat process
+     */
+    private final List<ReportField> requestedFields = new ArrayList<ReportField>();
 
-    LogCatCollector(ACRAConfiguration config, PackageManagerWrapper pm) {
+    LogCatCollector(ACRAConfiguration config, PackageManagerWrapper pm, Calendar appStartDate, Scrubber scrubber) {
         super(ReportField.LOGCAT, ReportField.EVENTSLOG, ReportField.RADIOLOG);
         this.config = config;
         this.pm = pm;
+        this.appStartDate = appStartDate;
+        this.scrubber = scrubber;
+        for (ReportField field : LOG_FIELDS) {
+            if (config.reportContent().contains(field) && !config.sendTimeReportContent().contains(field)) {
+                requestedFields.add(field);
+            }
+        }
+        // the sender process does not crash into reports, so it must not keep a logcat process running
+        recorder = config.continuousLogcat() && config.reportContent().contains(ReportField.LOGCAT) && canReadLogs() && !ACRA.isACRASenderServiceProcess()
+                ? LogCatRecorder.getInstance(config, scrubber) : null;
     }
 
     /**
      * Executes the logcat command with arguments taken from
      * {@link ReportsCrashes#logcatArguments()}
      *
-     * @param bufferName The name of the buffer to be read: "main" (default), "radio" or "events".
+     * @param reportField the field to collect
+     * @param bufferName  The name of the buffer to be read: "main" (default), "radio" or "events".
      * @return A {@link String} containing the latest lines of the output.
      * Default is 100 lines, use "-t", "300" in
      * {@link ReportsCrashes#logcatArguments()} if you want 300 lines.
@@ -70,9 +116,8 @@ final class LogCatCollector extends Collector {
      * report generation time and a bigger footprint on the device data
      * plan consumption.
      */
-    private Element collectLogCat(@Nullable String bufferName) {
-        final int myPid = android.os.Process.myPid();
-        final String myPidStr = config.logcatFilterByPid() && myPid > 0 ? Integer.toString(myPid) + "):" : null;
+    private Element collectLogCat(@NonNull ReportField reportField, @Nullable String bufferName) {
+        final String myPidStr = getPidFilter();
 
         final List<String> commandLine = new ArrayList<String>();
         commandLine.add("logcat");
@@ -81,31 +126,24 @@ final class LogCatCollector extends Collector {
             commandLine.add(bufferName);
         }
 
-        final int tailCount;
-        final List<String> logcatArgumentsList = config.logcatArguments();
-
-        final int tailIndex = logcatArgumentsList.indexOf("-t");
-        if (tailIndex > -1 && tailIndex < logcatArgumentsList.size()) {
-            tailCount = Integer.parseInt(logcatArgumentsList.get(tailIndex + 1));
-        } else {
-            tailCount = -1;
-        }
+        final int tailCount = getTailCount();
+        final List<ReportField> fields = Collections.singletonList(reportField);
 
         Element logcat;
-        commandLine.addAll(logcatArgumentsList);
+        commandLine.addAll(getArguments(fields, tailCount));
 
         try {
-            final Process process =  new ProcessBuilder().command(commandLine).redirectErrorStream(true).start();
+            final long startTime = System.currentTimeMillis();
 
             if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Retrieving logcat output...");
 
-            logcat = new StringElement(streamToString(process.getInputStream(), new Predicate<String>() {
+            logcat = new StringElement(limitLength(join(createRunner(commandLine).run(new Predicate<String>() {
                 @Override
                 public boolean apply(String s) {
                     return myPidStr == null || s.contains(myPidStr);
                 }
-            }, tailCount));
-            process.destroy();
+            }, tailCount).getLines())));
+            markCollected(fields, startTime);
 
         } catch (IOException e) {
             ACRA.log.e(LOG_TAG, "LogCatCollector.collectLogCat could not retrieve data.", e);
@@ -115,20 +153,253 @@ final class LogCatCollector extends Collector {
         return logcat;
     }
 
+    /**
+     * Collects all requested buffers with a single logcat invocation and splits its output by the dividers logcat prints when switching buffers.
+     * The tail count from {@link ReportsCrashes#logcatArguments()} is applied to each buffer, but logcat is asked for that many lines
+     * per buffer in total, so a buffer with few recent lines may contribute less than it would on its own.
+     *
+     * @param fields the fields to collect, at least two
+     * @return the collected fields, or null if logcat could not be read
+     */
+    @Nullable
+    private Map<ReportField, Element> collectDemultiplexed(@NonNull List<ReportField> fields) {
+        final String myPidStr = getPidFilter();
+        final int tailCount = getTailCount();
+        final List<String> commandLine = new ArrayList<String>();
+        commandLine.add("logcat");
+        final Map<String, List<String>> buffers = new HashMap<String, List<String>>();
+        final Map<ReportField, List<String>> lines = new EnumMap<ReportField, List<String>>(ReportField.class);
+        for (ReportField field : fields) {
+            final List<String> fieldLines = tailCount > -1 ? new BoundedRingBuffer<String>(tailCount) : new ArrayList<String>();
+            lines.put(field, fieldLines);
+            for (String bufferName : getBufferNames(field)) {
+                commandLine.add("-b");
+                commandLine.add(bufferName);
+                buffers.put(bufferName, fieldLines);
+            }
+        }
+        commandLine.add("-D");
+        commandLine.addAll(getArguments(fields, tailCount));
+
+        final long startTime = System.currentTimeMillis();
+        try {
+            if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Retrieving logcat output of " + fields + "...");
+
+            // the filter sorts every line into its buffer, so only a note about truncated output may end up in the result itself
+            final List<String> notes = createRunner(commandLine).run(new Predicate<String>() {
+                private List<String> current;
+
+                @Override
+                public boolean apply(String s) {
+                    if (s.startsWith(DIVIDER)) {
+                        // "--------- beginning of main" or "--------- switch to events"
+                        final List<String> next = buffers.get(s.substring(s.lastIndexOf(' ') + 1));
+                        if (next != null) {
+                            current = next;
+                            return false;
+                        }
+                    }
+                    if (current != null && (myPidStr == null || s.contains(myPidStr))) {
+                        current.add(s);
+                    }
+                    return false;
+                }
+            }, -1).getLines();
+            for (String note : notes) {
+                for (List<String> fieldLines : lines.values()) {
+                    fieldLines.add(note);
+                }
+            }
+            markCollected(fields, startTime);
+        } catch (IOException e) {
+            ACRA.log.e(LOG_TAG, "LogCatCollector.collectDemultiplexed could not retrieve data.", e);
+            return null;
+        }
+        final Map<ReportField, Element> result = new EnumMap<ReportField, Element>(ReportField.class);
+        for (Map.Entry<ReportField, List<String>> entry : lines.entrySet()) {
+            result.put(entry.getKey(), new StringElement(limitLength(join(entry.getValue()))));
+        }
+        return result;
+    }
+
+    /**
+     * @param reportField   the field to collect
+     * @param reportBuilder the current report
+     * @return the field if it was collected together with the other requested logcat fields of this report, or null if it has to be collected on its own
+     */
+    @Nullable
+    private synchronized Element getDemultiplexed(@NonNull ReportField reportField, @NonNull ReportBuilder reportBuilder) {
+        Map<ReportField, Element> fieldsOfReport = demultiplexed.get(reportBuilder);
+        if (fieldsOfReport == null) {
+            fieldsOfReport = new EnumMap<ReportField, Element>(ReportField.class);
+            demultiplexed.clear();
+            demultiplexed.put(reportBuilder, fieldsOfReport);
+            if (Build.VERSION.SDK_INT >= API_NOUGAT) {
+                final List<ReportField> fields = new ArrayList<ReportField>();
+                for (ReportField field : requestedFields) {
+                    if (!(field == ReportField.LOGCAT && recorder != null && recorder.isRunning())) {
+                        fields.add(field);
+                    }
+                }
+                if (fields.size() > 1) {
+                    final Map<ReportField, Element> result = collectDemultiplexed(fields);
+                    if (result != null) {
+                        fieldsOfReport.putAll(result);
+                    }
+                }
+            }
+        }
+        return fieldsOfReport.remove(reportField);
+    }
+
+    @NonNull
+    private static String[] getBufferNames(@NonNull ReportField reportField) {
+        switch (reportField) {
+            case EVENTSLOG:
+                return new String[]{"events"};
+            case RADIOLOG:
+                return new String[]{"radio"};
+            default:
+                // the buffers logcat reads if none is given
+                return new String[]{"main", "system", "crash"};
+        }
+    }
+
+    /**
+     * @param fields    the fields collected by one logcat invocation
+     * @param tailCount the number of lines to keep per field
+     * @return {@link ACRAConfiguration#logcatArguments()}, adjusted to the collected fields
+     */
+    @NonNull
+    private List<String> getArguments(@NonNull List<ReportField> fields, int tailCount) {
+        final List<String> arguments = new ArrayList<String>(config.logcatArguments());
+        final int tailIndex = arguments.indexOf("-t");
+        if (config.logcatSinceLastReport() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            // read everything since the last report, the tail count is applied while reading
+            if (tailCount > -1) {
+                arguments.remove(tailIndex + 1);
+                arguments.remove(tailIndex);
+            }
+            final SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+            arguments.add("-d");
+            arguments.add("-T");
+            arguments.add(format.format(new Date(getWindowStart(fields))));
+        } else if (tailCount > -1 && fields.size() > 1) {
+            arguments.set(tailIndex + 1, Integer.toString(tailCount * fields.size()));
+        }
+        return arguments;
+    }
+
+    private synchronized long getWindowStart(@NonNull List<ReportField> fields) {
+        long start = Long.MAX_VALUE;
+        for (ReportField field : fields) {
+            final Long time = lastCollected.get(field);
+            start = Math.min(start, time != null ? time : appStartDate.getTimeInMillis());
+        }
+        return start;
+    }
+
+    private synchronized void markCollected(@NonNull List<ReportField> fields, long time) {
+        for (ReportField field : fields) {
+            lastCollected.put(field, time);
+        }
+    }
+
+    /**
+     * Scrubs only the lines which are kept, after the tail count has been applied.
+     * The given list is left untouched.
+     *
+     * @param lines the collected lines
+     * @return the scrubbed lines joined with '\n'
+     */
+    @NonNull
+    private String join(@NonNull List<String> lines) {
+        if (!scrubber.isEnabled()) {
+            return IOUtils.join(lines);
+        }
+        // scrubbing rarely changes the length much, so size the builder for the unscrubbed lines
+        int length = lines.size();
+        for (int i = 0; i < lines.size(); i++) {
+            length += lines.get(i).length();
+        }
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(scrubber.scrub(lines.get(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Drops the oldest lines until the UTF-8 encoded length fits into {@link ACRAConfiguration#logcatMaxBytes()}.
+     *
+     * @param logcat the collected lines
+     * @return the newest lines which fit into the budget
+     */
+    @NonNull
+    private String limitLength(@NonNull String logcat) {
+        final int maxBytes = config.logcatMaxBytes();
+        // no char takes more than three bytes
+        if (maxBytes <= 0 || logcat.length() * 3 <= maxBytes) {
+            return logcat;
+        }
+        int bytes = 0;
+        for (int i = logcat.length() - 1; i >= 0; i--) {
+            final char c = logcat.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800 || (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+            if (bytes > maxBytes) {
+                final int lineEnd = logcat.indexOf('\n', i);
+                return lineEnd == -1 ? "" : logcat.substring(lineEnd + 1);
+            }
+        }
+        return logcat;
+    }
+
+    @Nullable
+    private String getPidFilter() {
+        final int myPid = android.os.Process.myPid();
+        return config.logcatFilterByPid() && myPid > 0 ? Integer.toString(myPid) + "):" : null;
+    }
+
+    private int getTailCount() {
+        final List<String> logcatArgumentsList = config.logcatArguments();
+        final int tailIndex = logcatArgumentsList.indexOf("-t");
+        if (tailIndex > -1 && tailIndex < logcatArgumentsList.size() - 1) {
+            return Integer.parseInt(logcatArgumentsList.get(tailIndex + 1));
+        }
+        return -1;
+    }
+
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
-        return super.shouldCollect(crashReportFields, collect, reportBuilder)
-                && (pm.hasPermission(Manifest.permission.READ_LOGS)
-                || Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN);
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+        return super.shouldCollect(crashReportFields, collect, reportBuilder) && canReadLogs();
+    }
+
+    private boolean canReadLogs() {
+        return pm.hasPermission(Manifest.permission.READ_LOGS) || Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
     }
 
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         String bufferName = null;
         switch (reportField) {
             case LOGCAT:
-                bufferName = null;
+                if (recorder != null && recorder.isRunning()) {
+                    try {
+                        return new StringElement(limitLength(recorder.getLines()));
+                    } catch (IOException e) {
+                        ACRA.log.w(LOG_TAG, "Could not read recorded logcat", e);
+                    }
+                }
                 break;
             case EVENTSLOG:
                 bufferName = "events";
@@ -137,25 +408,26 @@ final class LogCatCollector extends Collector {
                 bufferName = "radio";
                 break;
         }
-        return collectLogCat(bufferName);
+        final Element element = getDemultiplexed(reportField, reportBuilder);
+        return element != null ? element : collectLogCat(reportField, bufferName);
     }
 
     /**
-     * Reads an InputStream into a string in an non blocking way for current thread
-     * It has a default timeout of 3 seconds.
-     *
-     * @param input  the stream
-     * @param filter should return false for lines which should be excluded
-     * @param limit  the maximum number of lines to read (the last x lines are kept)
-     * @return the String that was read.
-     * @throws IOException if the stream cannot be read.
+     * @param commandLine the logcat command line
+     * @return a runner which gives up after 3 seconds if reading in a non blocking way
      */
     @NonNull
-    private String streamToString(@NonNull InputStream input, Predicate<String> filter, int limit) throws IOException {
+    private ProcessRunner createRunner(@NonNull List<String> commandLine) {
+        final ProcessRunner runner = new ProcessRunner(commandLine);
         if (config.nonBlockingReadForLogcat()) {
-            return IOUtils.streamToStringNonBlockingRead(input, filter, limit);
-        } else {
-            return IOUtils.streamToString(input, filter, limit);
+            runner.setTimeout(NON_BLOCKING_READ_TIMEOUT);
         }
+        return runner;
+    }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.EXPENSIVE;
     }
 }
@@ -0,0 +1,205 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.ACRA;
+import org.acra.ACRAConstants;
+import org.acra.config.ACRAConfiguration;
+import org.acra.util.IOUtils;
+import org.acra.util.Scrubber;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Keeps a single logcat process running and records its output into a fixed size ring buffer,
+ * so collecting {@link org.acra.ReportField#LOGCAT} does not need to start a process while the application is crashing.
+ *
+ * @since 4.9.3
+ */
+final class LogCatRecorder {
+    @Nullable
+    private static LogCatRecorder instance;
+
+    private final byte[] buffer;
+    private final int tailCount;
+    private final Scrubber scrubber;
+    @Nullable
+    private final String myPidStr;
+    private int position;
+    private boolean wrapped;
+    private volatile boolean running = true;
+
+    private LogCatRecorder(@NonNull ACRAConfiguration config, @NonNull Scrubber scrubber) {
+        this.scrubber = scrubber;
+        buffer = new byte[Math.max(config.logcatBufferSize(), 1)];
+        final List<String> arguments = new ArrayList<String>(config.logcatArguments());
+        final int tailIndex = arguments.indexOf("-t");
+        if (tailIndex > -1 && tailIndex < arguments.size() - 1) {
+            tailCount = parseTailCount(arguments.get(tailIndex + 1));
+            // -t would make logcat exit after printing
+            arguments.remove(tailIndex + 1);
+            arguments.remove(tailIndex);
+        } else {
+            tailCount = -1;
+        }
+        arguments.remove("-d");
+        final int myPid = android.os.Process.myPid();
+        if (config.logcatFilterByPid() && myPid > 0 && Build.VERSION.SDK_INT >= LogCatCollector.API_NOUGAT) {
+            // let logcat filter, so other processes' lines are never read at all
+            arguments.add("--pid=" + myPid);
+            myPidStr = null;
+        } else {
+            myPidStr = config.logcatFilterByPid() && myPid > 0 ? Integer.toString(myPid) + "):" : null;
+        }
+        arguments.add(0, "logcat");
+        start(arguments);
+    }
+
+    /**
+     * @param value the argument of "-t"
+     * @return the number of lines to keep, or -1 to keep all lines of the buffer if value is not a line count (e.g. a timestamp)
+     */
+    private static int parseTailCount(@NonNull String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            ACRA.log.w(LOG_TAG, "Cannot apply logcat argument -t " + value + " to continuous logcat, keeping the whole buffer");
+            return -1;
+        }
+    }
+
+    /**
+     * @param config   the configuration
+     * @param scrubber applied to lines as they are recorded
+     * @return the recorder of this process, started on first call
+     */
+    @NonNull
+    static synchronized LogCatRecorder getInstance(@NonNull ACRAConfiguration config, @NonNull Scrubber scrubber) {
+        if (instance == null) {
+            instance = new LogCatRecorder(config, scrubber);
+        }
+        return instance;
+    }
+
+    private void start(@NonNull final List<String> commandLine) {
+        final Thread thread = new Thread("ACRA-logcat") {
+            @Override
+            public void run() {
+                BufferedReader reader = null;
+                try {
+                    final Process process = new ProcessBuilder().command(commandLine).redirectErrorStream(true).start();
+                    reader = new BufferedReader(new InputStreamReader(process.getInputStream()), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES);
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (myPidStr == null || line.contains(myPidStr)) {
+                            // scrubbing here keeps it off the crash path
+                            write((scrubber.scrub(line) + '\n').getBytes(ACRAConstants.UTF8));
+                        }
+                    }
+                    process.destroy();
+                } catch (IOException e) {
+                    ACRA.log.w(LOG_TAG, "Continuous logcat recording stopped", e);
+                } finally {
+                    IOUtils.safeClose(reader);
+                    running = false;
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private synchronized void write(@NonNull byte[] bytes) {
+        int offset = Math.max(0, bytes.length - buffer.length);
+        while (offset < bytes.length) {
+            final int length = Math.min(bytes.length - offset, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            offset += length;
+            position += length;
+            if (position == buffer.length) {
+                position = 0;
+                wrapped = true;
+            }
+        }
+    }
+
+    /**
+     * @return if logcat is still being recorded. If not, logcat has to be collected the usual way.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Copies the recorded lines out of the buffer.
+     *
+     * @return the last lines recorded, as many as requested with "-t" in {@link ACRAConfiguration#logcatArguments()}
+     * @throws IOException if the lines cannot be decoded
+     */
+    @NonNull
+    String getLines() throws IOException {
+        final byte[] copy;
+        // the recorder thread may wrap the buffer at any time, so decide on the copy taken
+        final boolean copyWrapped;
+        synchronized (this) {
+            copyWrapped = wrapped;
+            if (copyWrapped) {
+                copy = new byte[buffer.length];
+                System.arraycopy(buffer, position, copy, 0, buffer.length - position);
+                System.arraycopy(buffer, 0, copy, buffer.length - position, position);
+            } else {
+                copy = new byte[position];
+                System.arraycopy(buffer, 0, copy, 0, position);
+            }
+        }
+        int start = 0;
+        if (copyWrapped) {
+            // the oldest line was partially overwritten
+            while (start < copy.length && copy[start] != '\n') {
+                start++;
+            }
+            start++;
+        }
+        int end = copy.length;
+        if (end > start && copy[end - 1] == '\n') {
+            end--;
+        }
+        if (tailCount >= 0) {
+            int lines = 0;
+            for (int i = end - 1; i >= start; i--) {
+                if (copy[i] == '\n' && ++lines == tailCount) {
+                    start = i + 1;
+                    break;
+                }
+            }
+        }
+        if (end <= start) {
+            return "";
+        }
+        return new String(copy, start, end - start, ACRAConstants.UTF8);
+    }
+}
@@ -19,6 +19,7 @@ package org.acra.collector;
 import android.app.Application;
 import android.content.Context;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.acra.ACRA;
 import org.acra.ACRAConstants;
@@ -28,18 +29,16 @@ import org.acra.config.ACRAConfiguration;
 import org.acra.file.Directory;
 import org.acra.model.Element;
 import org.acra.model.StringElement;
-import org.acra.util.IOUtils;
+import org.acra.util.Scrubber;
+import org.acra.util.TailReader;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 import static org.acra.ACRA.LOG_TAG;
 
 /**
- * Collects the N last lines of a text stream. Use this collector if your
+ * Collects the N last lines of a text file, continuing in rotated files if needed. Use this collector if your
  * application handles its own logging system.
  *
  * @author Kevin Gaudin & F43nd1r
@@ -47,11 +46,13 @@ import static org.acra.ACRA.LOG_TAG;
 final class LogFileCollector extends Collector {
     private final Context context;
     private final ACRAConfiguration config;
+    private final Scrubber scrubber;
 
-    LogFileCollector(Context context, ACRAConfiguration config) {
+    LogFileCollector(Context context, ACRAConfiguration config, Scrubber scrubber) {
         super(ReportField.APPLICATION_LOG);
         this.context = context;
         this.config = config;
+        this.scrubber = scrubber;
     }
 
     /**
@@ -63,40 +64,37 @@ final class LogFileCollector extends Collector {
      */
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         try {
-            return new StringElement(IOUtils.streamToString(
-                    getStream(config.applicationLogFileDir(), config.applicationLogFile()),
-                    config.applicationLogFileLines()));
+            final File file = getFile(config.applicationLogFileDir(), config.applicationLogFile());
+            return new StringElement(file != null ? TailReader.readLastLines(file, config.applicationLogFileLines(), scrubber) : "");
         } catch (IOException e) {
+            ACRA.log.e(LOG_TAG, "Could not read log file '" + config.applicationLogFile() + "'", e);
             return ACRAConstants.NOT_AVAILABLE;
         }
     }
 
     /**
-     * get the application log file location and open it
+     * get the application log file location and check it can be read
      *
      * @param directory the base directory for the file path
      * @param fileName the name of the file
-     * @return a stream to the file or an empty stream if the file was not found
+     * @return the file, or null if it cannot be read. A missing file is returned as well, its rotated siblings may still exist.
      */
-    @NonNull
-    private InputStream getStream(@NonNull Directory directory, @NonNull String fileName) {
+    @Nullable
+    private File getFile(@NonNull Directory directory, @NonNull String fileName) {
         final File file = directory.getFile(context, fileName);
         if (!file.exists()) {
             if (ACRA.DEV_LOGGING)
-                ACRA.log.d(LOG_TAG, "Log file '" + file.getPath() + "' does not exist");
+                ACRA.log.d(LOG_TAG, "Log file '" + file.getPath() + "' does not exist, looking for rotated files");
+            return file;
         } else if (file.isDirectory()) {
             ACRA.log.e(LOG_TAG, "Log file '" + file.getPath() + "' is a directory");
         } else if (!file.canRead()) {
             ACRA.log.e(LOG_TAG, "Log file '" + file.getPath() + "' can't be read");
         } else {
-            try {
-                return new FileInputStream(file);
-            } catch (IOException e) {
-                ACRA.log.e(LOG_TAG, "Could not open stream for log file '" + file.getPath() + "'");
-            }
+            return file;
         }
-        return new ByteArrayInputStream(new byte[0]);
+        return null;
     }
 }
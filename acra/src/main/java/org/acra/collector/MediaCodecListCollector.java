@@ -73,7 +73,7 @@ final class MediaCodecListCollector extends Collector {
     @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         try {
             return collectMediaCodecList();
         } catch (JSONException e) {
@@ -83,7 +83,7 @@ final class MediaCodecListCollector extends Collector {
     }
 
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return super.shouldCollect(crashReportFields, collect, reportBuilder) && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
     }
 
@@ -276,4 +276,10 @@ final class MediaCodecListCollector extends Collector {
 
         return null;
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.EXPENSIVE;
+    }
 }
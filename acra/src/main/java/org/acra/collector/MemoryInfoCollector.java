@@ -27,7 +27,7 @@ import org.acra.builder.ReportBuilder;
 import org.acra.model.Element;
 import org.acra.model.NumberElement;
 import org.acra.model.StringElement;
-import org.acra.util.IOUtils;
+import org.acra.util.ProcessRunner;
 
 import java.io.File;
 import java.io.IOException;
@@ -48,13 +48,13 @@ final class MemoryInfoCollector extends Collector {
     }
 
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return super.shouldCollect(crashReportFields, collect, reportBuilder) && !(reportBuilder.getException() instanceof OutOfMemoryError);
     }
 
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         switch (reportField) {
             case DUMPSYS_MEMINFO:
                 return collectMemInfo();
@@ -83,8 +83,7 @@ final class MemoryInfoCollector extends Collector {
             commandLine.add("meminfo");
             commandLine.add(Integer.toString(android.os.Process.myPid()));
 
-            final Process process = Runtime.getRuntime().exec(commandLine.toArray(new String[commandLine.size()]));
-            return new StringElement(IOUtils.streamToString(process.getInputStream()));
+            return new StringElement(new ProcessRunner(commandLine).run().getOutput());
         } catch (IOException e) {
             ACRA.log.e(LOG_TAG, "MemoryInfoCollector.meminfo could not retrieve data", e);
             return ACRAConstants.NOT_AVAILABLE;
@@ -137,4 +136,9 @@ final class MemoryInfoCollector extends Collector {
         return totalBlocks * blockSize;
     }
 
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.EXPENSIVE;
+    }
 }
\ No newline at end of file
@@ -42,7 +42,7 @@ final class PackageManagerCollector extends Collector {
 
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         final PackageInfo info = pm.getPackageInfo();
         if (info != null) {
             switch (reportField) {
@@ -54,4 +54,10 @@ final class PackageManagerCollector extends Collector {
         }
         return ACRAConstants.NOT_AVAILABLE;
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
 }
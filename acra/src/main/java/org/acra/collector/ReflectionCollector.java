@@ -35,7 +35,9 @@ import org.json.JSONObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.acra.ACRA.LOG_TAG;
 
@@ -48,6 +50,16 @@ import static org.acra.ACRA.LOG_TAG;
  * @author Kevin Gaudin
  */
 final class ReflectionCollector extends Collector {
+    /**
+     * Build and BuildConfig only hold constants, so they are inspected once per process
+     */
+    private static volatile Element build;
+    private static volatile Element buildConfig;
+    /**
+     * Environment getters may return different values over time, but the getters themselves are only looked up once
+     */
+    private static volatile Method[] environmentGetters;
+
     private final Context context;
     private final ACRAConfiguration config;
 
@@ -55,6 +67,39 @@ final class ReflectionCollector extends Collector {
         super(ReportField.BUILD, ReportField.BUILD_CONFIG, ReportField.ENVIRONMENT);
         this.context = context;
         this.config = config;
+        if (build == null && config.reportContent().contains(ReportField.BUILD)
+                || buildConfig == null && config.reportContent().contains(ReportField.BUILD_CONFIG)
+                || environmentGetters == null && config.reportContent().contains(ReportField.ENVIRONMENT)) {
+            prepare();
+        }
+    }
+
+    /**
+     * Does the reflective work which does not depend on the time of the crash in the background,
+     * so it is usually done before the first crash
+     */
+    private void prepare() {
+        final Thread thread = new Thread("ACRA-reflection") {
+            @Override
+            public void run() {
+                try {
+                    if (config.reportContent().contains(ReportField.BUILD)) {
+                        getBuild();
+                    }
+                    if (config.reportContent().contains(ReportField.BUILD_CONFIG)) {
+                        getBuildConfig();
+                    }
+                    if (config.reportContent().contains(ReportField.ENVIRONMENT)) {
+                        getEnvironmentGetters();
+                    }
+                } catch (RuntimeException e) {
+                    ACRA.log.w(LOG_TAG, "Could not prepare reflection", e);
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
     }
 
     /**
@@ -83,62 +128,115 @@ final class ReflectionCollector extends Collector {
     }
 
     /**
-     * Retrieves key/value pairs from static getters of a class (get*() or is*()).
+     * Finds static getters of a class (get*() or is*()).
      *
      * @param someClass the class to be inspected.
+     * @return all getters
      */
-    private static void collectStaticGettersResults(@NonNull Class<?> someClass, JSONObject container) throws JSONException {
-        final Method[] methods = someClass.getMethods();
-        for (final Method method : methods) {
+    @NonNull
+    private static Method[] findStaticGetters(@NonNull Class<?> someClass) {
+        final List<Method> getters = new ArrayList<Method>();
+        for (final Method method : someClass.getMethods()) {
             if (method.getParameterTypes().length == 0
                     && (method.getName().startsWith("get") || method.getName().startsWith("is"))
                     && !"getClass".equals(method.getName())) {
-                try {
-                    container.put(method.getName(), method.invoke(null, (Object[]) null));
-                } catch (@NonNull IllegalArgumentException ignored) {
-                    // NOOP
-                } catch (@NonNull InvocationTargetException ignored) {
-                    // NOOP
-                } catch (@NonNull IllegalAccessException ignored) {
-                    // NOOP
-                }
+                getters.add(method);
+            }
+        }
+        return getters.toArray(new Method[getters.size()]);
+    }
+
+    /**
+     * Retrieves key/value pairs from static getters.
+     *
+     * @param getters the getters to invoke.
+     */
+    private static void collectStaticGettersResults(@NonNull Method[] getters, JSONObject container) throws JSONException {
+        for (final Method method : getters) {
+            try {
+                container.put(method.getName(), method.invoke(null, (Object[]) null));
+            } catch (@NonNull IllegalArgumentException ignored) {
+                // NOOP
+            } catch (@NonNull InvocationTargetException ignored) {
+                // NOOP
+            } catch (@NonNull IllegalAccessException ignored) {
+                // NOOP
             }
         }
     }
 
     @NonNull
-    @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
-        final ComplexElement result = new ComplexElement();
-        try {
-            switch (reportField) {
-                case BUILD:
-                    collectConstants(Build.class, result);
-                    final JSONObject version = new JSONObject();
-                    collectConstants(Build.VERSION.class, version);
-                    result.put("VERSION", version);
-                    break;
-                case BUILD_CONFIG:
-                    try {
-                        collectConstants(getBuildConfigClass(), result);
-                    } catch (ClassNotFoundException e) {
-                        //already logged in getBuildConfigClass
-                    }
-                    break;
-                case ENVIRONMENT:
-                    collectStaticGettersResults(Environment.class, result);
-                    break;
-                default:
-                    //will not happen if used correctly
-                    throw new IllegalArgumentException();
+    private static Element getBuild() {
+        Element result = build;
+        if (result == null) {
+            try {
+                final ComplexElement element = new ComplexElement();
+                collectConstants(Build.class, element);
+                final JSONObject version = new JSONObject();
+                collectConstants(Build.VERSION.class, version);
+                element.put("VERSION", version);
+                result = element;
+            } catch (JSONException e) {
+                ACRA.log.w("Couldn't collect constants", e);
+                return ACRAConstants.NOT_AVAILABLE;
+            }
+            build = result;
+        }
+        return result;
+    }
+
+    @NonNull
+    private Element getBuildConfig() {
+        Element result = buildConfig;
+        if (result == null) {
+            final ComplexElement element = new ComplexElement();
+            try {
+                collectConstants(getBuildConfigClass(), element);
+            } catch (ClassNotFoundException e) {
+                //already logged in getBuildConfigClass
+            } catch (JSONException e) {
+                ACRA.log.w("Couldn't collect constants", e);
+                return ACRAConstants.NOT_AVAILABLE;
             }
-        } catch (JSONException e) {
-            ACRA.log.w("Couldn't collect constants", e);
-            return ACRAConstants.NOT_AVAILABLE;
+            result = element;
+            buildConfig = result;
         }
         return result;
     }
 
+    @NonNull
+    private static Method[] getEnvironmentGetters() {
+        Method[] result = environmentGetters;
+        if (result == null) {
+            result = findStaticGetters(Environment.class);
+            environmentGetters = result;
+        }
+        return result;
+    }
+
+    @NonNull
+    @Override
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+        switch (reportField) {
+            case BUILD:
+                return getBuild();
+            case BUILD_CONFIG:
+                return getBuildConfig();
+            case ENVIRONMENT:
+                final ComplexElement result = new ComplexElement();
+                try {
+                    collectStaticGettersResults(getEnvironmentGetters(), result);
+                } catch (JSONException e) {
+                    ACRA.log.w("Couldn't collect constants", e);
+                    return ACRAConstants.NOT_AVAILABLE;
+                }
+                return result;
+            default:
+                //will not happen if used correctly
+                throw new IllegalArgumentException();
+        }
+    }
+
     /**
      * get the configured BuildConfigClass or guess it if not configured
      * @return the BuildConfigClass
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import org.acra.ACRA;
+import org.acra.ACRAConstants;
+import org.acra.ReportField;
+import org.acra.builder.ReportBuilder;
+import org.acra.config.ACRAConfiguration;
+import org.acra.prefs.SharedPreferencesFactory;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Fills fields configured in {@link ACRAConfiguration#sendTimeReportContent()} right before a report is sent.
+ * Runs in the process sending reports, so the crashing process doesn't have to collect them.
+ *
+ * @since 4.9.3
+ */
+public final class SendTimeEnricher {
+    private final Set<ReportField> fields;
+    private final List<Collector> collectors;
+
+    public SendTimeEnricher(@NonNull Context context, @NonNull ACRAConfiguration config) {
+        fields = EnumSet.noneOf(ReportField.class);
+        for (ReportField field : config.sendTimeReportContent()) {
+            if (config.reportContent().contains(field)) {
+                fields.add(field);
+            }
+        }
+        // data about the crashed process is not available here, but none of the fields worth deferring need it
+        collectors = CrashReportDataFactory.getCollectorsOrdered(context, config, new SharedPreferencesFactory(context, config).create(),
+                Calendar.getInstance(), ACRAConstants.NOT_AVAILABLE, Collections.<String, String>emptyMap(), new Breadcrumbs(0));
+    }
+
+    /**
+     * Collects all send time fields which are missing in the report.
+     *
+     * @param crashReportData the report to complete
+     * @return if any field was added
+     */
+    public boolean enrich(@NonNull CrashReportData crashReportData) {
+        final ReportBuilder builder = new ReportBuilder();
+        boolean enriched = false;
+        for (Collector collector : collectors) {
+            for (ReportField field : collector.canCollect()) {
+                // collectors are ordered by priority, so the first one to collect a field owns it
+                if (fields.contains(field) && !crashReportData.containsKey(field)) {
+                    try {
+                        if (collector.shouldCollect(fields, field, builder)) {
+                            crashReportData.put(field, collector.collect(field, builder));
+                            enriched = true;
+                        }
+                    } catch (RuntimeException e) {
+                        ACRA.log.e(LOG_TAG, "Error while retrieving " + field.name() + " data", e);
+                    }
+                }
+            }
+        }
+        return enriched;
+    }
+}
@@ -16,8 +16,11 @@
 
 package org.acra.collector;
 
+import android.content.ContentResolver;
 import android.content.Context;
+import android.database.ContentObserver;
 import android.os.Build;
+import android.os.Handler;
 import android.provider.Settings.Global;
 import android.provider.Settings.Secure;
 import android.provider.Settings.System;
@@ -27,7 +30,6 @@ import android.support.annotation.Nullable;
 import org.acra.ACRA;
 import org.acra.ACRAConstants;
 import org.acra.ReportField;
-import org.acra.builder.ReportBuilder;
 import org.acra.config.ACRAConfiguration;
 import org.acra.model.ComplexElement;
 import org.acra.model.Element;
@@ -43,7 +45,7 @@ import static org.acra.ACRA.LOG_TAG;
  *
  * @author Kevin Gaudin & F43nd1r
  */
-final class SettingsCollector extends Collector {
+final class SettingsCollector extends SnapshotCollector {
 
     private static final String ERROR = "Error: ";
 
@@ -161,9 +163,34 @@ final class SettingsCollector extends Collector {
         return true;
     }
 
+    @Override
+    boolean registerListeners(@NonNull Handler handler) {
+        final ContentResolver resolver = context.getContentResolver();
+        resolver.registerContentObserver(System.CONTENT_URI, true, new SettingsObserver(handler, ReportField.SETTINGS_SYSTEM));
+        resolver.registerContentObserver(Secure.CONTENT_URI, true, new SettingsObserver(handler, ReportField.SETTINGS_SECURE));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            resolver.registerContentObserver(Global.CONTENT_URI, true, new SettingsObserver(handler, ReportField.SETTINGS_GLOBAL));
+        }
+        return true;
+    }
+
+    private final class SettingsObserver extends ContentObserver {
+        private final ReportField field;
+
+        SettingsObserver(@NonNull Handler handler, @NonNull ReportField field) {
+            super(handler);
+            this.field = field;
+        }
+
+        @Override
+        public void onChange(boolean selfChange) {
+            refresh(field);
+        }
+    }
+
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    Element collectFresh(@NonNull ReportField reportField) {
         try {
         switch (reportField) {
             case SETTINGS_SYSTEM:
@@ -17,6 +17,7 @@ package org.acra.collector;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
 import android.preference.PreferenceManager;
 import android.support.annotation.NonNull;
 
@@ -24,7 +25,6 @@ import org.acra.ACRA;
 import org.acra.ACRAConstants;
 import org.acra.ReportField;
 import org.acra.annotation.ReportsCrashes;
-import org.acra.builder.ReportBuilder;
 import org.acra.config.ACRAConfiguration;
 import org.acra.model.ComplexElement;
 import org.acra.model.Element;
@@ -43,11 +43,12 @@ import static org.acra.ACRA.LOG_TAG;
  * application default preferences or any other preferences asked by the
  * application developer.
  */
-final class SharedPreferencesCollector extends Collector {
+final class SharedPreferencesCollector extends SnapshotCollector {
 
     private final Context context;
     private final ACRAConfiguration config;
     private final SharedPreferences prefs;
+    private SharedPreferences.OnSharedPreferenceChangeListener listener;
 
     SharedPreferencesCollector(@NonNull Context context, @NonNull ACRAConfiguration config, SharedPreferences prefs) {
         super(ReportField.USER_EMAIL, ReportField.SHARED_PREFERENCES);
@@ -117,9 +118,29 @@ final class SharedPreferencesCollector extends Collector {
         return false;
     }
 
+    @Override
+    boolean registerListeners(@NonNull Handler handler) {
+        // SharedPreferences only keep weak references to their listeners, so keep a strong one here
+        listener = new SharedPreferences.OnSharedPreferenceChangeListener() {
+            @Override
+            public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+                if (sharedPreferences == prefs && ACRA.PREF_USER_EMAIL_ADDRESS.equals(key)) {
+                    refresh(ReportField.USER_EMAIL);
+                }
+                refresh(ReportField.SHARED_PREFERENCES);
+            }
+        };
+        prefs.registerOnSharedPreferenceChangeListener(listener);
+        PreferenceManager.getDefaultSharedPreferences(context).registerOnSharedPreferenceChangeListener(listener);
+        for (final String sharedPrefId : config.additionalSharedPreferences()) {
+            context.getSharedPreferences(sharedPrefId, Context.MODE_PRIVATE).registerOnSharedPreferenceChangeListener(listener);
+        }
+        return true;
+    }
+
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    Element collectFresh(@NonNull ReportField reportField) {
         switch (reportField) {
             case USER_EMAIL:
                 final String email = prefs.getString(ACRA.PREF_USER_EMAIL_ADDRESS, null);
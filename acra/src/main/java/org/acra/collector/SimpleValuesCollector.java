@@ -54,13 +54,13 @@ final class SimpleValuesCollector extends Collector {
     }
 
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return collect == ReportField.IS_SILENT || collect == ReportField.REPORT_ID || super.shouldCollect(crashReportFields, collect, reportBuilder);
     }
 
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         switch (reportField) {
             case IS_SILENT:
                 return new BooleanElement(reportBuilder.isSendSilently());
@@ -122,4 +122,16 @@ final class SimpleValuesCollector extends Collector {
         }
         return result.toString();
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
+
+    @NonNull
+    @Override
+    public Priority getPriority() {
+        return Priority.HIGH;
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.os.Handler;
+import android.support.annotation.NonNull;
+import android.support.annotation.Size;
+
+import org.acra.ACRA;
+import org.acra.ReportField;
+import org.acra.builder.ReportBuilder;
+import org.acra.model.Element;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * A collector which can keep an up-to-date snapshot of its fields.
+ * Subclasses register listeners for changes of their source and call {@link #refresh(ReportField)},
+ * so collecting a field on the crash path only returns the last snapshot.
+ *
+ * @since 4.9.3
+ */
+abstract class SnapshotCollector extends Collector {
+    /**
+     * Changes often come in bursts (e.g. several settings written at once), so refreshes are delayed by this many milliseconds
+     */
+    private static final long REFRESH_DELAY = 500;
+
+    private final Map<ReportField, Element> snapshots = new ConcurrentHashMap<ReportField, Element>();
+    private final Map<ReportField, Runnable> refreshers = new EnumMap<ReportField, Runnable>(ReportField.class);
+    private Handler handler;
+
+    SnapshotCollector(@Size(min = 1) @NonNull ReportField... reportFields) {
+        super(reportFields);
+    }
+
+    /**
+     * Takes initial snapshots of all configured fields and starts listening for changes.
+     * If the subclass cannot listen for changes on this device, no snapshots are kept and fields are collected as usual.
+     *
+     * @param crashReportFields configured fields
+     * @param handler           handler of the thread on which snapshots are taken
+     */
+    final void startSnapshots(@NonNull Set<ReportField> crashReportFields, @NonNull Handler handler) {
+        this.handler = handler;
+        for (final ReportField field : canCollect()) {
+            if (crashReportFields.contains(field)) {
+                refreshers.put(field, new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            snapshots.put(field, collectFresh(field));
+                        } catch (RuntimeException e) {
+                            ACRA.log.w(LOG_TAG, "Could not take snapshot of " + field.name(), e);
+                            snapshots.remove(field);
+                        }
+                    }
+                });
+            }
+        }
+        if (!refreshers.isEmpty() && registerListeners(handler)) {
+            for (Runnable refresher : refreshers.values()) {
+                handler.post(refresher);
+            }
+        } else {
+            refreshers.clear();
+        }
+    }
+
+    /**
+     * Drops the snapshot of the given field and schedules a new one. May be called from any thread.
+     * Until the new snapshot is taken, the field is collected as usual instead of reporting the outdated snapshot.
+     *
+     * @param field the field which changed
+     */
+    final void refresh(@NonNull ReportField field) {
+        final Runnable refresher = refreshers.get(field);
+        if (refresher != null) {
+            snapshots.remove(field);
+            handler.removeCallbacks(refresher);
+            handler.postDelayed(refresher, REFRESH_DELAY);
+        }
+    }
+
+    /**
+     * register listeners which call {@link #refresh(ReportField)} whenever the source of a field changes
+     *
+     * @param handler handler which may be passed to listener registrations
+     * @return if listeners could be registered on this device
+     */
+    abstract boolean registerListeners(@NonNull Handler handler);
+
+    /**
+     * collect the current value of a field, bypassing the snapshot
+     *
+     * @param reportField the ReportField to collect
+     * @return Element of what was collected
+     */
+    @NonNull
+    abstract Element collectFresh(@NonNull ReportField reportField);
+
+    @NonNull
+    @Override
+    protected final Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+        final Element snapshot = snapshots.get(reportField);
+        return snapshot != null ? snapshot : collectFresh(reportField);
+    }
+}
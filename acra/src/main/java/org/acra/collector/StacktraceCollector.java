@@ -23,6 +23,7 @@ import org.acra.ReportField;
 import org.acra.builder.ReportBuilder;
 import org.acra.model.Element;
 import org.acra.model.StringElement;
+import org.acra.util.StackTraceUtils;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -41,19 +42,19 @@ final class StacktraceCollector extends Collector {
     }
 
     @Override
-    boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
         return collect == ReportField.STACK_TRACE || super.shouldCollect(crashReportFields, collect, reportBuilder);
     }
 
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         switch (reportField) {
             case STACK_TRACE:
                 return new StringElement(
                         getStackTrace(reportBuilder.getMessage(), reportBuilder.getException()));
             case STACK_TRACE_HASH:
-                return new StringElement(getStackTraceHash(reportBuilder.getException()));
+                return new StringElement(StackTraceUtils.getStackTraceHash(reportBuilder.getException()));
             default:
                 //will not happen if used correctly
                 throw new IllegalArgumentException();
@@ -83,18 +84,14 @@ final class StacktraceCollector extends Collector {
     }
 
     @NonNull
-    private String getStackTraceHash(@Nullable Throwable th) {
-        final StringBuilder res = new StringBuilder();
-        Throwable cause = th;
-        while (cause != null) {
-            final StackTraceElement[] stackTraceElements = cause.getStackTrace();
-            for (final StackTraceElement e : stackTraceElements) {
-                res.append(e.getClassName());
-                res.append(e.getMethodName());
-            }
-            cause = cause.getCause();
-        }
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
 
-        return Integer.toHexString(res.toString().hashCode());
+    @NonNull
+    @Override
+    public Priority getPriority() {
+        return Priority.HIGH;
     }
 }
@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.ACRA;
+import org.acra.ACRAConstants;
+import org.acra.ReportField;
+import org.acra.builder.ReportBuilder;
+import org.acra.model.Element;
+import org.acra.util.IOUtils;
+import org.acra.util.JsonUtils;
+import org.acra.util.PackageManagerWrapper;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Holds fields which cannot change for an installed app version on a given OS build.
+ * They are collected once in the background and kept on disk, keyed by {@link Build#FINGERPRINT} and the app version code,
+ * so subsequent app starts only have to read a small file.
+ *
+ * @since 4.9.3
+ */
+final class StaticFieldCache {
+    private static final String FILE_NAME = "ACRA-STATIC-FIELDS";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String VERSION_CODE = "versionCode";
+    private static final String CONTENT = "content";
+    private static final String FIELDS = "fields";
+
+    /**
+     * {@link ReportField#ENVIRONMENT} is left out on purpose: it holds runtime state like the storage state which may change at any time
+     */
+    private static final Set<ReportField> STATIC_FIELDS = EnumSet.of(ReportField.BUILD, ReportField.BUILD_CONFIG,
+            ReportField.DEVICE_FEATURES, ReportField.MEDIA_CODEC_LIST, ReportField.PHONE_MODEL, ReportField.BRAND, ReportField.PRODUCT,
+            ReportField.APP_VERSION_CODE, ReportField.APP_VERSION_NAME);
+
+    private final Context context;
+    private final Set<ReportField> reportContent;
+    @Nullable
+    private volatile CrashReportData fields;
+
+    StaticFieldCache(@NonNull Context context, @NonNull Set<ReportField> reportContent) {
+        this.context = context;
+        this.reportContent = reportContent;
+    }
+
+    /**
+     * Loads the cache from disk or, if it is missing or outdated, collects it using the given collectors.
+     * This happens on a background thread; until it completes, {@link #get(ReportField)} returns null.
+     *
+     * @param collectors all available collectors
+     */
+    void prepare(@NonNull final List<Collector> collectors) {
+        final Thread thread = new Thread("ACRA-static-fields") {
+            @Override
+            public void run() {
+                fields = loadOrCollect(collectors);
+            }
+        };
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * @param field the field to look up
+     * @return the cached element, or null if this field is not cached (yet)
+     */
+    @Nullable
+    Element get(@NonNull ReportField field) {
+        final CrashReportData data = fields;
+        return data != null ? data.get(field) : null;
+    }
+
+    @NonNull
+    private CrashReportData loadOrCollect(@NonNull List<Collector> collectors) {
+        final File file = new File(context.getFilesDir(), FILE_NAME);
+        final PackageInfo info = new PackageManagerWrapper(context).getPackageInfo();
+        final int versionCode = info != null ? info.versionCode : 0;
+        if (file.exists()) {
+            try {
+                final JSONObject json = read(file);
+                if (Build.FINGERPRINT.equals(json.optString(FINGERPRINT)) && versionCode == json.optInt(VERSION_CODE)
+                        && getCacheableFields().toString().equals(json.optString(CONTENT))) {
+                    final CrashReportData data = JsonUtils.toCrashReportData(json.getJSONObject(FIELDS));
+                    if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Using cached static fields " + data.keySet());
+                    return data;
+                }
+            } catch (IOException e) {
+                ACRA.log.w(LOG_TAG, "Could not read static field cache", e);
+            } catch (JSONException e) {
+                ACRA.log.w(LOG_TAG, "Static field cache is corrupt", e);
+            }
+        }
+        final CrashReportData data = collect(collectors);
+        try {
+            final JSONObject json = new JSONObject();
+            json.put(FINGERPRINT, Build.FINGERPRINT);
+            json.put(VERSION_CODE, versionCode);
+            json.put(CONTENT, getCacheableFields().toString());
+            json.put(FIELDS, data.toJSON());
+            IOUtils.writeStringToFile(file, json.toString());
+        } catch (IOException e) {
+            ACRA.log.w(LOG_TAG, "Could not write static field cache", e);
+        } catch (JSONException e) {
+            ACRA.log.w(LOG_TAG, "Could not write static field cache", e);
+        }
+        return data;
+    }
+
+    @NonNull
+    private CrashReportData collect(@NonNull List<Collector> collectors) {
+        final CrashReportData data = new CrashReportData();
+        final Set<ReportField> cacheableFields = getCacheableFields();
+        final ReportBuilder builder = new ReportBuilder();
+        for (Collector collector : collectors) {
+            for (ReportField field : collector.canCollect()) {
+                try {
+                    // collectors are ordered by priority, so the first one to collect a field owns it
+                    if (cacheableFields.contains(field) && !data.containsKey(field) && collector.shouldCollect(reportContent, field, builder)) {
+                        final Element element = collector.collect(field, builder);
+                        // don't persist failures, maybe they succeed next time
+                        if (element != ACRAConstants.NOT_AVAILABLE) {
+                            data.put(field, element);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    ACRA.log.w(LOG_TAG, "Error while precollecting " + field.name(), e);
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return the static fields which are also configured
+     */
+    @NonNull
+    private Set<ReportField> getCacheableFields() {
+        final Set<ReportField> result = EnumSet.noneOf(ReportField.class);
+        for (ReportField field : reportContent) {
+            if (STATIC_FIELDS.contains(field)) {
+                result.add(field);
+            }
+        }
+        return result;
+    }
+
+    @NonNull
+    private static JSONObject read(@NonNull File file) throws IOException, JSONException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(file), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES);
+        try {
+            return new JSONObject(IOUtils.streamToString(in));
+        } finally {
+            IOUtils.safeClose(in);
+        }
+    }
+}
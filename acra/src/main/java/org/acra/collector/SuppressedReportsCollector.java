@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collector;
+
+import android.support.annotation.NonNull;
+
+import org.acra.ReportField;
+import org.acra.builder.ReportBuilder;
+import org.acra.model.ComplexElement;
+import org.acra.model.Element;
+
+import java.util.Set;
+
+/**
+ * Collects the number of reports which were discarded because the report queue was full
+ *
+ * @since 4.9.3
+ */
+final class SuppressedReportsCollector extends Collector {
+    SuppressedReportsCollector() {
+        super(ReportField.SUPPRESSED_REPORTS);
+    }
+
+    @Override
+    protected boolean shouldCollect(Set<ReportField> crashReportFields, ReportField collect, ReportBuilder reportBuilder) {
+        return super.shouldCollect(crashReportFields, collect, reportBuilder) && !reportBuilder.getSuppressedReports().isEmpty();
+    }
+
+    @NonNull
+    @Override
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+        return new ComplexElement(reportBuilder.getSuppressedReports());
+    }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
+}
@@ -42,7 +42,7 @@ final class ThreadCollector extends Collector {
      */
     @NonNull
     @Override
-    Element collect(ReportField reportField, ReportBuilder reportBuilder) {
+    protected Element collect(ReportField reportField, ReportBuilder reportBuilder) {
         final Thread t = reportBuilder.getUncaughtExceptionThread();
         final ComplexElement result = new ComplexElement();
         if (t != null) {
@@ -61,4 +61,10 @@ final class ThreadCollector extends Collector {
         }
         return result;
     }
+
+    @NonNull
+    @Override
+    public Cost getCost() {
+        return Cost.CHEAP;
+    }
 }
@@ -31,6 +31,8 @@ import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import static org.acra.ACRA.LOG_TAG;
 import static org.acra.ACRAConstants.*;
@@ -100,7 +102,15 @@ public final class ConfigurationBuilder extends BaseConfigurationBuilder<Configu
             throw new ACRAConfigurationException("Report sender factories: using no report senders will make ACRA useless. Configure at least one ReportSenderFactory.");
         }
         checkValidity((Class[]) reportSenderFactoryClasses());
+        checkValidity((Class[]) collectorFactoryClasses());
         checkValidity(reportDialogClass(), reportPrimerClass(), retryPolicyClass(), keyStoreFactoryClass());
+        for (String pattern : scrubbedPatterns()) {
+            try {
+                Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                throw new ACRAConfigurationException("Scrubbed pattern " + pattern + " is not a valid regular expression.", e);
+            }
+        }
 
         return new ACRAConfiguration(this);
     }
@@ -159,6 +169,25 @@ public final class ConfigurationBuilder extends BaseConfigurationBuilder<Configu
         return super.customReportContent();
     }
 
+    @NoPropagation
+    @NonNull
+    @Override
+    ReportField[] customMinimalReportContent() {
+        return super.customMinimalReportContent();
+    }
+
+    @NonNull
+    Set<ReportField> minimalReportContent() {
+        final Set<ReportField> minimalReportContent = new LinkedHashSet<ReportField>();
+        if (customMinimalReportContent().length != 0) {
+            minimalReportContent.addAll(Arrays.asList(customMinimalReportContent()));
+        } else {
+            minimalReportContent.addAll(Arrays.asList(DEFAULT_MINIMAL_REPORT_FIELDS));
+        }
+        minimalReportContent.retainAll(reportContent());
+        return minimalReportContent;
+    }
+
     @NonNull
     Set<ReportField> reportContent() {
         final Set<ReportField> reportContent = new LinkedHashSet<ReportField>();
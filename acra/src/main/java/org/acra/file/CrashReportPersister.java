@@ -29,10 +29,14 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 /**
  * Stores a crash reports data with {@link org.acra.ReportField} enum values as keys.
@@ -42,6 +46,10 @@ import java.io.InputStream;
  * file.
  */
 public final class CrashReportPersister {
+    /**
+     * Extension of files which are being written
+     */
+    static final String TEMP_EXTENSION = ".tmp";
 
     /**
      * Loads properties from the specified {@code File}.
@@ -72,6 +80,25 @@ public final class CrashReportPersister {
      * @throws java.io.IOException if the CrashReportData could not be written to the OutputStream.
      */
     public void store(@NonNull CrashReportData crashData, @NonNull File file) throws IOException {
-        IOUtils.writeStringToFile(file, crashData.toJSON().toString());
+        // write to a temporary file first, so an existing report is replaced atomically and never left half written
+        final File temp = new File(file.getPath() + TEMP_EXTENSION);
+        // stream the report instead of building it as one big string, it might be written while memory is low
+        final Writer writer = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(temp), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES), ACRAConstants.UTF8);
+        boolean written = false;
+        try {
+            JsonUtils.writeJson(crashData, writer);
+            writer.flush();
+            written = true;
+        } finally {
+            IOUtils.safeClose(writer);
+            // whatever went wrong, e.g. running out of memory while serializing, don't leave the temporary file behind
+            if (!written) {
+                IOUtils.deleteReport(temp);
+            }
+        }
+        if (!temp.renameTo(file)) {
+            IOUtils.deleteReport(temp);
+            throw new IOException("Could not rename " + temp + " to " + file);
+        }
     }
 }
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.support.annotation.NonNull;
 
 import java.io.File;
+import java.io.FileFilter;
 import java.util.Arrays;
 
 /**
@@ -18,6 +19,16 @@ public final class ReportLocator {
     private static final String UNAPPROVED_FOLDER_NAME = "ACRA-unapproved";
     private static final String APPROVED_FOLDER_NAME = "ACRA-approved";
 
+    /**
+     * Ignores files which are still being written by {@link CrashReportPersister}
+     */
+    private static final FileFilter REPORT_FILTER = new FileFilter() {
+        @Override
+        public boolean accept(@NonNull File file) {
+            return !file.getName().endsWith(CrashReportPersister.TEMP_EXTENSION);
+        }
+    };
+
     private final Context context;
 
     public ReportLocator(@NonNull Context context) {
@@ -31,7 +42,7 @@ public final class ReportLocator {
 
     @NonNull
     public File[] getUnapprovedReports() {
-        final File[] reports = getUnapprovedFolder().listFiles();
+        final File[] reports = getUnapprovedFolder().listFiles(REPORT_FILTER);
         if (reports == null) {
             return new File[0];
         }
@@ -48,7 +59,7 @@ public final class ReportLocator {
      */
     @NonNull
     public File[] getApprovedReports() {
-        final File[] reports = getApprovedFolder().listFiles();
+        final File[] reports = getApprovedFolder().listFiles(REPORT_FILTER);
         if (reports == null) {
             return new File[0];
         }
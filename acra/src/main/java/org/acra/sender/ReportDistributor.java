@@ -19,8 +19,11 @@ import android.content.Context;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
 import org.acra.ACRA;
 import org.acra.collector.CrashReportData;
+import org.acra.collector.SendTimeEnricher;
 import org.acra.config.ACRAConfiguration;
 import org.acra.config.DefaultRetryPolicy;
 import org.acra.config.RetryPolicy;
@@ -47,6 +50,8 @@ final class ReportDistributor {
     private final Context context;
     private final ACRAConfiguration config;
     private final List<ReportSender> reportSenders;
+    @Nullable
+    private final SendTimeEnricher enricher;
 
     /**
      * Creates a new {@link ReportDistributor} to try sending pending reports.
@@ -59,6 +64,7 @@ final class ReportDistributor {
         this.context = context;
         this.config = config;
         this.reportSenders = reportSenders;
+        this.enricher = config.sendTimeReportContent().isEmpty() ? null : new SendTimeEnricher(context, config);
     }
 
     /**
@@ -72,6 +78,10 @@ final class ReportDistributor {
         try {
             final CrashReportPersister persister = new CrashReportPersister();
             final CrashReportData previousCrashReport = persister.load(reportFile);
+            if (enricher != null && enricher.enrich(previousCrashReport)) {
+                // keep the report consistent if it has to be sent again
+                persister.store(previousCrashReport, reportFile);
+            }
             sendCrashReport(previousCrashReport);
             IOUtils.deleteReport(reportFile);
         } catch (RuntimeException e) {
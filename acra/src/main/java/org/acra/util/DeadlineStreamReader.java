@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acra.util;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.internal.util.Predicate;
+
+import org.acra.ACRAConstants;
+import org.acra.collections.BoundedRingBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads lines from a stream until its end or until a deadline passes, on the calling thread.
+ * <p>
+ * Data is only read when it is available, so a read never blocks past the deadline.
+ * Because a pipe reports nothing available both while its writer is idle and at its end,
+ * the end of the stream is only detected once the process writing to it has exited.
+ * Without a process, reads block and the deadline is only checked between them.
+ * </p>
+ *
+ * @since 4.9.3
+ */
+public final class DeadlineStreamReader implements Closeable {
+    private static final long POLL_INTERVAL = 10;
+
+    private final Reader reader;
+    @Nullable
+    private final Process process;
+    private final long timeout;
+    private final long deadline;
+    private final char[] buffer = new char[ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES];
+    private boolean timedOut;
+
+    /**
+     * @param input   the stream to read
+     * @param process the process writing to the stream, if any
+     * @param timeout time in milliseconds after which reading stops
+     */
+    public DeadlineStreamReader(@NonNull InputStream input, @Nullable Process process, long timeout) {
+        this.reader = new InputStreamReader(input);
+        this.process = process;
+        this.timeout = timeout;
+        this.deadline = SystemClock.uptimeMillis() + timeout;
+    }
+
+    /**
+     * Reads lines until the end of the stream or the deadline, whichever comes first.
+     *
+     * @param filter should return false for lines which should be excluded
+     * @param limit  the maximum number of lines to keep (the last x lines are kept), or -1 for no limit
+     * @return the lines which were read
+     * @throws IOException if the stream could not be read
+     */
+    @NonNull
+    public List<String> readLines(@NonNull Predicate<String> filter, int limit) throws IOException {
+        final List<String> lines = limit < 0 ? new ArrayList<String>() : new BoundedRingBuffer<String>(limit);
+        final StringBuilder line = new StringBuilder();
+        while (true) {
+            if (SystemClock.uptimeMillis() >= deadline) {
+                timedOut = true;
+                break;
+            }
+            if (!reader.ready() && !hasExited()) {
+                SystemClock.sleep(Math.min(POLL_INTERVAL, deadline - SystemClock.uptimeMillis()));
+                continue;
+            }
+            final int count = reader.read(buffer);
+            if (count == -1) {
+                break;
+            }
+            int start = 0;
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] == '\n') {
+                    line.append(buffer, start, i - start);
+                    addLine(lines, line, filter);
+                    start = i + 1;
+                }
+            }
+            line.append(buffer, start, count - start);
+        }
+        if (line.length() > 0) {
+            addLine(lines, line, filter);
+        }
+        return lines;
+    }
+
+    private static void addLine(@NonNull List<String> lines, @NonNull StringBuilder line, @NonNull Predicate<String> filter) {
+        final int length = line.length();
+        final String value = length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+        line.setLength(0);
+        if (filter.apply(value)) {
+            lines.add(value);
+        }
+    }
+
+    private boolean hasExited() {
+        if (process == null) {
+            return true;
+        }
+        try {
+            process.exitValue();
+            return true;
+        } catch (IllegalThreadStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return if the deadline passed before the end of the stream was reached, so the lines read are incomplete
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return the timeout in milliseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void close() {
+        IOUtils.safeClose(reader);
+    }
+}
@@ -17,13 +17,12 @@ package org.acra.util;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.TextUtils;
 
 import com.android.internal.util.Predicate;
 
 import org.acra.ACRA;
 import org.acra.ACRAConstants;
-import org.acra.collections.BoundedLinkedList;
+import org.acra.collections.BoundedRingBuffer;
 
 import java.io.BufferedReader;
 import java.io.Closeable;
@@ -33,7 +32,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.acra.ACRA.LOG_TAG;
@@ -124,21 +123,22 @@ public final class IOUtils {
         final BufferedReader reader = new BufferedReader(new InputStreamReader(input), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES);
         try {
             String line;
-            final List<String> buffer = limit == NO_LIMIT ? new LinkedList<String>() : new BoundedLinkedList<String>(limit);
+            final List<String> buffer = createBuffer(limit);
             while ((line = reader.readLine()) != null) {
                 if (filter.apply(line)) {
                     buffer.add(line);
                 }
             }
-            return TextUtils.join("\n", buffer);
+            return join(buffer);
         } finally {
             safeClose(reader);
         }
     }
 
     /**
-     * Reads an InputStream into a string without blocking the current thread.
-     * It has a default timeout of 3 seconds.
+     * Reads an InputStream into a string, giving up after 3 seconds.
+     * As the end of the stream cannot be told apart from a writer which is just idle, reads may block.
+     * Use {@link ProcessRunner} for the output of a process.
      *
      * @param input  InputStream to read.
      * @param filter Predicate that should return false for lines which should be excluded.
@@ -148,28 +148,47 @@ public final class IOUtils {
      */
     @NonNull
     public static String streamToStringNonBlockingRead(@NonNull InputStream input, Predicate<String> filter, int limit) throws IOException {
-        final BufferedReader reader = new BufferedReader(new InputStreamReader(input), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES);
-        final NonBlockingBufferedReader nonBlockingReader = new NonBlockingBufferedReader(reader);
+        final DeadlineStreamReader reader = new DeadlineStreamReader(input, null, READ_TIMEOUT);
         try {
-            final List<String> buffer = limit == NO_LIMIT ? new LinkedList<String>() : new BoundedLinkedList<String>(limit);
-            final long end = System.currentTimeMillis() + READ_TIMEOUT;
-            try {
-                while ((System.currentTimeMillis() < end)) {
-                    final String line = nonBlockingReader.readLine();
-                    if (line == null) {
-                        break;
-                    }
-                    if (filter.apply(line)) {
-                        buffer.add(line);
-                    }
-                }
-            } catch (InterruptedException e) {
-                if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, "Interrupted while reading stream", e);
+            final List<String> lines = reader.readLines(filter, limit);
+            if (reader.isTimedOut()) {
+                ACRA.log.w(LOG_TAG, "Reading stream timed out after " + reader.getTimeout() + "ms, output is truncated");
+                lines.add(ACRAConstants.TRUNCATED_NOTE + "read timed out after " + reader.getTimeout() + "ms]");
             }
-            return TextUtils.join("\n", buffer);
+            return join(lines);
         } finally {
-            nonBlockingReader.close();
+            reader.close();
+        }
+    }
+
+    @NonNull
+    private static List<String> createBuffer(int limit) {
+        return limit == NO_LIMIT ? new ArrayList<String>() : new BoundedRingBuffer<String>(limit);
+    }
+
+    /**
+     * Joins lines with '\n' into a builder sized up front, so the result is never copied.
+     *
+     * @param lines the lines
+     * @return the joined lines
+     */
+    @NonNull
+    public static String join(@NonNull List<String> lines) {
+        if (lines.isEmpty()) {
+            return "";
+        }
+        int length = lines.size() - 1;
+        for (int i = 0; i < lines.size(); i++) {
+            length += lines.get(i).length();
+        }
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(lines.get(i));
         }
+        return builder.toString();
     }
 
     public static void deleteReport(@NonNull File file) {
@@ -16,6 +16,8 @@
 
 package org.acra.util;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
 
 import org.acra.ReportField;
@@ -25,10 +27,13 @@ import org.acra.model.Element;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.acra.ACRA.LOG_TAG;
@@ -51,6 +56,86 @@ public final class JsonUtils {
         return new JSONObject(map);
     }
 
+    /**
+     * Writes a report as JSON without building the whole document in memory first.
+     * Produces the same document as {@link #toJson(CrashReportData)}.
+     *
+     * @param data   the report to write
+     * @param writer the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void writeJson(@NonNull CrashReportData data, @NonNull Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<ReportField, Element> entry : data.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeString(entry.getKey().name(), writer);
+            writer.write(':');
+            writeValue(entry.getValue().value(), writer);
+        }
+        writer.write('}');
+    }
+
+    private static void writeValue(@Nullable Object value, @NonNull Writer writer) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Number) {
+            try {
+                writer.write(JSONObject.numberToString((Number) value));
+            } catch (JSONException e) {
+                // NaN and infinity cannot be represented
+                writer.write("null");
+            }
+        } else if (value instanceof Boolean || value instanceof JSONObject) {
+            writer.write(value.toString());
+        } else {
+            writeString(value.toString(), writer);
+        }
+    }
+
+    /**
+     * Writes a quoted and escaped JSON string
+     */
+    private static void writeString(@NonNull String s, @NonNull Writer writer) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    writer.write('\\');
+                    writer.write(c);
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                case '\b':
+                    writer.write("\\b");
+                    break;
+                case '\f':
+                    writer.write("\\f");
+                    break;
+                default:
+                    if (c <= 0x1F) {
+                        writer.write(String.format(Locale.US, "\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                    break;
+            }
+        }
+        writer.write('"');
+    }
+
     public static CrashReportData toCrashReportData(JSONObject json) {
         final CrashReportData data = new CrashReportData();
         for (final Iterator<String> iterator = json.keys(); iterator.hasNext(); ) {
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acra.util;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import com.android.internal.util.Predicate;
+
+import org.acra.ACRA;
+import org.acra.ACRAConstants;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.acra.ACRA.LOG_TAG;
+
+/**
+ * Runs an external command with bounded wall time and output size and reads its output line by line.
+ * <p>
+ * Stderr is merged into stdout, so a command writing a lot of errors cannot block on a full pipe nobody reads.
+ * Once the timeout passes or the output limit is reached, the process is killed and reaped.
+ * If the output is incomplete for either reason, a last line saying so is added to it.
+ * </p>
+ *
+ * @since 4.9.3
+ */
+public final class ProcessRunner {
+    private static final long DEFAULT_TIMEOUT = 10000;
+    private static final int DEFAULT_MAX_BYTES = 1024 * 1024;
+    /**
+     * Time to wait for a killed process to exit
+     */
+    private static final long REAP_TIMEOUT = 100;
+    private static final Predicate<String> ALL = new Predicate<String>() {
+        @Override
+        public boolean apply(String s) {
+            return true;
+        }
+    };
+
+    private final List<String> commandLine;
+    private long timeout = DEFAULT_TIMEOUT;
+    private int maxBytes = DEFAULT_MAX_BYTES;
+
+    /**
+     * @param commandLine the command and its arguments
+     */
+    public ProcessRunner(@NonNull List<String> commandLine) {
+        this.commandLine = new ArrayList<String>(commandLine);
+    }
+
+    /**
+     * @param timeout time in milliseconds after which the process is killed (default 10 seconds)
+     * @return this instance
+     */
+    @NonNull
+    public ProcessRunner setTimeout(long timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * @param maxBytes number of bytes after which no more output is read and the process is killed (default 1MB)
+     * @return this instance
+     */
+    @NonNull
+    public ProcessRunner setMaxBytes(int maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Runs the command and reads all its output.
+     *
+     * @return the result
+     * @throws IOException if the process could not be started or its output could not be read
+     */
+    @NonNull
+    public Result run() throws IOException {
+        return run(ALL, -1);
+    }
+
+    /**
+     * Runs the command and reads its output.
+     *
+     * @param filter should return false for lines which should be excluded
+     * @param limit  the maximum number of lines to keep (the last x lines are kept), or -1 for no limit
+     * @return the result
+     * @throws IOException if the process could not be started or its output could not be read
+     */
+    @NonNull
+    public Result run(@NonNull Predicate<String> filter, int limit) throws IOException {
+        final long start = SystemClock.uptimeMillis();
+        final Process process = new ProcessBuilder().command(commandLine).redirectErrorStream(true).start();
+        final CappedInputStream input = new CappedInputStream(process.getInputStream(), maxBytes);
+        final DeadlineStreamReader reader = new DeadlineStreamReader(input, process, timeout);
+        final List<String> lines;
+        final long duration;
+        final Integer exitValue;
+        try {
+            lines = reader.readLines(filter, limit);
+            duration = SystemClock.uptimeMillis() - start;
+        } finally {
+            // also reap if reading failed, so the process never outlives the call
+            try {
+                exitValue = reap(process);
+            } finally {
+                reader.close();
+            }
+        }
+        if (reader.isTimedOut()) {
+            ACRA.log.w(LOG_TAG, commandLine.get(0) + " did not finish within " + timeout + "ms, output is truncated");
+            lines.add(ACRAConstants.TRUNCATED_NOTE + "timed out after " + timeout + "ms]");
+        } else if (input.isCapped()) {
+            ACRA.log.w(LOG_TAG, commandLine.get(0) + " wrote more than " + maxBytes + " bytes, output is truncated");
+            lines.add(ACRAConstants.TRUNCATED_NOTE + "output exceeded " + maxBytes + " bytes]");
+        }
+        if (ACRA.DEV_LOGGING) ACRA.log.d(LOG_TAG, commandLine.get(0) + " took " + duration + "ms");
+        return new Result(lines, reader.isTimedOut(), input.isCapped(), duration, exitValue);
+    }
+
+    /**
+     * Kills the process if it is still running and waits shortly for it to exit, so it does not linger as a zombie.
+     *
+     * @param process the process
+     * @return the exit value, or null if the process did not exit in time
+     */
+    private static Integer reap(@NonNull Process process) {
+        process.destroy();
+        final long end = SystemClock.uptimeMillis() + REAP_TIMEOUT;
+        while (true) {
+            try {
+                return process.exitValue();
+            } catch (IllegalThreadStateException e) {
+                if (SystemClock.uptimeMillis() >= end) {
+                    return null;
+                }
+                SystemClock.sleep(1);
+            }
+        }
+    }
+
+    /**
+     * Result of running a command
+     */
+    public static final class Result {
+        private final List<String> lines;
+        private final boolean timedOut;
+        private final boolean truncated;
+        private final long duration;
+        private final Integer exitValue;
+
+        private Result(@NonNull List<String> lines, boolean timedOut, boolean truncated, long duration, Integer exitValue) {
+            this.lines = lines;
+            this.timedOut = timedOut;
+            this.truncated = truncated;
+            this.duration = duration;
+            this.exitValue = exitValue;
+        }
+
+        /**
+         * @return the lines of output which passed the filter, followed by a note if the output is incomplete
+         */
+        @NonNull
+        public List<String> getLines() {
+            return lines;
+        }
+
+        /**
+         * @return the lines of output joined with '\n'
+         */
+        @NonNull
+        public String getOutput() {
+            return IOUtils.join(lines);
+        }
+
+        /**
+         * @return if the process was killed because it did not finish in time
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * @return if the process was killed because it wrote too much output
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        /**
+         * @return time in milliseconds from starting the process until its output was read
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return the exit value of the process, or null if it could not be reaped
+         */
+        public Integer getExitValue() {
+            return exitValue;
+        }
+    }
+
+    /**
+     * Ends the stream after a number of bytes
+     */
+    private static final class CappedInputStream extends FilterInputStream {
+        private int remaining;
+        private boolean capped;
+
+        CappedInputStream(@NonNull InputStream in, int maxBytes) {
+            super(in);
+            remaining = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                capped = true;
+                return -1;
+            }
+            final int result = super.read();
+            if (result != -1) {
+                remaining--;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int count) throws IOException {
+            if (remaining <= 0) {
+                capped = true;
+                return -1;
+            }
+            final int result = super.read(buffer, offset, Math.min(count, remaining));
+            if (result > 0) {
+                remaining -= result;
+            }
+            return result;
+        }
+
+        @Override
+        public int available() throws IOException {
+            // the artificial end is readable right away, there is no need to wait for the process
+            return remaining <= 0 ? 1 : Math.min(super.available(), remaining);
+        }
+
+        boolean isCapped() {
+            return capped;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acra.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.config.ACRAConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces personal data in collected text, line by line while it is read.
+ * <p>
+ * All {@link ACRAConfiguration#scrubbedKeywords()} are found in a single pass by an Aho-Corasick automaton,
+ * all {@link ACRAConfiguration#scrubbedPatterns()} are combined into one regular expression.
+ * Every match is replaced by {@link #REPLACEMENT}. Text without matches is returned as is, without copying.
+ * </p>
+ *
+ * @since 4.9.3
+ */
+public final class Scrubber {
+    public static final String REPLACEMENT = "[scrubbed]";
+    private static final int ASCII = 128;
+
+    /**
+     * Sorted characters occurring in keywords. Character class i + 1 is alphabet[i], class 0 is any other character.
+     */
+    private final char[] alphabet;
+    private final int[] asciiClasses = new int[ASCII];
+    /**
+     * Transitions of the automaton, indexed by state and character class
+     */
+    private final int[][] transitions;
+    /**
+     * Length of the longest keyword ending in each state, 0 if none does
+     */
+    private final int[] matchLengths;
+    @Nullable
+    private final Pattern pattern;
+
+    /**
+     * @param config the configuration holding the rules
+     */
+    public Scrubber(@NonNull ACRAConfiguration config) {
+        this(config.scrubbedKeywords(), config.scrubbedPatterns());
+    }
+
+    /**
+     * @param keywords literal strings to replace
+     * @param patterns regular expressions to replace
+     */
+    public Scrubber(@NonNull List<String> keywords, @NonNull List<String> patterns) {
+        final TreeSet<Character> chars = new TreeSet<Character>();
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                chars.add(keyword.charAt(i));
+            }
+        }
+        alphabet = new char[chars.size()];
+        int index = 0;
+        for (Character c : chars) {
+            alphabet[index] = c;
+            if (c < ASCII) {
+                asciiClasses[c] = index + 1;
+            }
+            index++;
+        }
+
+        final List<int[]> states = new ArrayList<int[]>();
+        final List<Integer> lengths = new ArrayList<Integer>();
+        states.add(newState());
+        lengths.add(0);
+        for (String keyword : keywords) {
+            if (keyword.length() == 0) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                final int c = classOf(keyword.charAt(i));
+                if (states.get(state)[c] == -1) {
+                    states.get(state)[c] = states.size();
+                    states.add(newState());
+                    lengths.add(0);
+                }
+                state = states.get(state)[c];
+            }
+            lengths.set(state, Math.max(lengths.get(state), keyword.length()));
+        }
+
+        // breadth first, so the failure state of each state is complete before it is used
+        final int[] failures = new int[states.size()];
+        final LinkedList<Integer> queue = new LinkedList<Integer>();
+        final int[] root = states.get(0);
+        for (int c = 0; c < root.length; c++) {
+            if (root[c] == -1) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.removeFirst();
+            final int[] row = states.get(state);
+            final int[] failureRow = states.get(failures[state]);
+            lengths.set(state, Math.max(lengths.get(state), lengths.get(failures[state])));
+            for (int c = 0; c < row.length; c++) {
+                if (row[c] == -1) {
+                    row[c] = failureRow[c];
+                } else {
+                    failures[row[c]] = failureRow[c];
+                    queue.add(row[c]);
+                }
+            }
+        }
+        transitions = states.toArray(new int[states.size()][]);
+        matchLengths = new int[lengths.size()];
+        for (int i = 0; i < matchLengths.length; i++) {
+            matchLengths[i] = lengths.get(i);
+        }
+
+        if (patterns.isEmpty()) {
+            pattern = null;
+        } else {
+            final StringBuilder combined = new StringBuilder();
+            for (String p : patterns) {
+                if (combined.length() > 0) {
+                    combined.append('|');
+                }
+                combined.append("(?:").append(p).append(')');
+            }
+            pattern = Pattern.compile(combined.toString());
+        }
+    }
+
+    @NonNull
+    private int[] newState() {
+        final int[] state = new int[alphabet.length + 1];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private int classOf(char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        final int index = Arrays.binarySearch(alphabet, c);
+        return index < 0 ? 0 : index + 1;
+    }
+
+    /**
+     * @return if there is anything to scrub
+     */
+    public boolean isEnabled() {
+        return transitions.length > 1 || pattern != null;
+    }
+
+    /**
+     * @param text the text to scrub, usually a single line
+     * @return the text with all matches replaced
+     */
+    @NonNull
+    public String scrub(@NonNull String text) {
+        long[] ranges = null;
+        int count = 0;
+        if (transitions.length > 1) {
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                state = transitions[state][classOf(text.charAt(i))];
+                final int length = matchLengths[state];
+                if (length > 0) {
+                    ranges = ensureCapacity(ranges, count);
+                    ranges[count++] = range(i + 1 - length, i + 1);
+                }
+            }
+        }
+        if (pattern != null) {
+            final Matcher matcher = pattern.matcher(text);
+            while (matcher.find()) {
+                if (matcher.end() > matcher.start()) {
+                    ranges = ensureCapacity(ranges, count);
+                    ranges[count++] = range(matcher.start(), matcher.end());
+                }
+            }
+        }
+        if (ranges == null) {
+            return text;
+        }
+        // keyword and pattern matches may overlap, merge them in order of their start
+        Arrays.sort(ranges, 0, count);
+        final StringBuilder result = new StringBuilder(text.length());
+        int position = 0;
+        int i = 0;
+        while (i < count) {
+            final int start = (int) (ranges[i] >>> 32);
+            int end = (int) ranges[i];
+            i++;
+            while (i < count && (int) (ranges[i] >>> 32) <= end) {
+                end = Math.max(end, (int) ranges[i]);
+                i++;
+            }
+            result.append(text, position, start).append(REPLACEMENT);
+            position = end;
+        }
+        return result.append(text, position, text.length()).toString();
+    }
+
+    @NonNull
+    private static long[] ensureCapacity(@Nullable long[] ranges, int count) {
+        if (ranges == null) {
+            return new long[8];
+        }
+        if (count < ranges.length) {
+            return ranges;
+        }
+        final long[] grown = new long[count * 2];
+        System.arraycopy(ranges, 0, grown, 0, count);
+        return grown;
+    }
+
+    /**
+     * @return start and end packed into one value, so ranges sort by start
+     */
+    private static long range(int start, int end) {
+        return ((long) start << 32) | end;
+    }
+}
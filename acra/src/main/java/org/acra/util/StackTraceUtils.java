@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acra.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Helper methods for stack traces
+ *
+ * @since 4.9.3
+ */
+public final class StackTraceUtils {
+    private StackTraceUtils() {
+    }
+
+    /**
+     * Hashes the classes and methods of all frames of an exception and its causes,
+     * so the same exception thrown at the same place always has the same hash, regardless of line numbers and messages.
+     *
+     * @param th the exception to hash
+     * @return the hash as hex string
+     */
+    @NonNull
+    public static String getStackTraceHash(@Nullable Throwable th) {
+        final StringBuilder res = new StringBuilder();
+        Throwable cause = th;
+        while (cause != null) {
+            final StackTraceElement[] stackTraceElements = cause.getStackTrace();
+            for (final StackTraceElement e : stackTraceElements) {
+                res.append(e.getClassName());
+                res.append(e.getMethodName());
+            }
+            cause = cause.getCause();
+        }
+
+        return Integer.toHexString(res.toString().hashCode());
+    }
+}
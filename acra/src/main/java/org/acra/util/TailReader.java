@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acra.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.acra.ACRAConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the last lines of a file by scanning backwards from its end, so only the requested lines are read no matter how large the file is.
+ * <p>
+ * If the file has less lines than requested or does not exist (e.g. right after it was rotated), the remaining lines are taken
+ * from the siblings a rotating logger leaves behind, "name.1" being the most recent one, then "name.2" and so on.
+ * </p>
+ *
+ * @since 4.9.3
+ */
+public final class TailReader {
+    private static final int BLOCK_SIZE = ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES;
+
+    private TailReader() {
+    }
+
+    /**
+     * @param file  the current file, which may not exist
+     * @param count the number of lines to read, or -1 for all lines of the current file
+     * @return the lines, joined with '\n'
+     * @throws IOException if a file could not be read
+     */
+    @NonNull
+    public static String readLastLines(@NonNull File file, int count) throws IOException {
+        return readLastLines(file, count, null);
+    }
+
+    /**
+     * @param file     the current file, which may not exist
+     * @param count    the number of lines to read, or -1 for all lines of the current file
+     * @param scrubber applied to each line read
+     * @return the lines, joined with '\n'
+     * @throws IOException if a file could not be read
+     */
+    @NonNull
+    public static String readLastLines(@NonNull File file, int count, @Nullable Scrubber scrubber) throws IOException {
+        final List<String> lines = file.isFile() ? readLastLinesOf(file, count) : new ArrayList<String>();
+        int rotation = 1;
+        File rotated;
+        while (count > lines.size() && (rotated = new File(file.getPath() + '.' + rotation)).isFile()) {
+            lines.addAll(0, readLastLinesOf(rotated, count - lines.size()));
+            rotation++;
+        }
+        if (scrubber != null && scrubber.isEnabled()) {
+            for (int i = 0; i < lines.size(); i++) {
+                lines.set(i, scrubber.scrub(lines.get(i)));
+            }
+        }
+        return IOUtils.join(lines);
+    }
+
+    @NonNull
+    private static List<String> readLastLinesOf(@NonNull File file, int count) throws IOException {
+        if (count == 0) {
+            return new ArrayList<String>();
+        }
+        final RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            final long length = input.length();
+            long end = length;
+            if (length > 0) {
+                // a line break at the very end does not start another line
+                input.seek(length - 1);
+                if (input.read() == '\n') {
+                    end--;
+                }
+            }
+            long start = 0;
+            if (count > 0) {
+                final byte[] block = new byte[(int) Math.min(BLOCK_SIZE, Math.max(end, 1))];
+                long position = end;
+                int found = 0;
+                search:
+                while (position > 0) {
+                    final int size = (int) Math.min(block.length, position);
+                    position -= size;
+                    input.seek(position);
+                    input.readFully(block, 0, size);
+                    for (int i = size - 1; i >= 0; i--) {
+                        if (block[i] == '\n' && ++found == count) {
+                            start = position + i + 1;
+                            break search;
+                        }
+                    }
+                }
+            }
+            final byte[] tail = new byte[(int) (end - start)];
+            input.seek(start);
+            input.readFully(tail);
+            return split(new String(tail, ACRAConstants.UTF8), length > 0);
+        } finally {
+            IOUtils.safeClose(input);
+        }
+    }
+
+    @NonNull
+    private static List<String> split(@NonNull String text, boolean hasLines) {
+        final List<String> lines = new ArrayList<String>();
+        if (!hasLines) {
+            return lines;
+        }
+        int start = 0;
+        while (true) {
+            final int end = text.indexOf('\n', start);
+            final String line = text.substring(start, end == -1 ? text.length() : end);
+            lines.add(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+            if (end == -1) {
+                return lines;
+            }
+            start = end + 1;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.collections;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedRingBufferTest {
+
+    @Test
+    public void keepsElementsUntilFull() {
+        final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<String>(3);
+        buffer.add("a");
+        buffer.add("b");
+        assertEquals(2, buffer.size());
+        assertEquals("a", buffer.get(0));
+        assertEquals("b", buffer.get(1));
+    }
+
+    @Test
+    public void overwritesOldestElementsWhenWrappingAround() {
+        final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<String>(3);
+        for (String s : Arrays.asList("a", "b", "c", "d", "e")) {
+            buffer.add(s);
+        }
+        assertEquals(3, buffer.size());
+        assertEquals(Arrays.asList("c", "d", "e"), buffer);
+    }
+
+    @Test
+    public void setReplacesElementAfterWrappingAround() {
+        final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<String>(3);
+        for (String s : Arrays.asList("a", "b", "c", "d")) {
+            buffer.add(s);
+        }
+        assertEquals("b", buffer.set(0, "x"));
+        assertEquals("d", buffer.set(2, "y"));
+        assertEquals(Arrays.asList("x", "c", "y"), buffer);
+    }
+
+    @Test
+    public void clearEmptiesBuffer() {
+        final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<String>(2);
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("c");
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        buffer.add("d");
+        assertEquals(Collections.singletonList("d"), buffer);
+    }
+
+    @Test
+    public void zeroCapacityKeepsNothing() {
+        final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<String>(0);
+        buffer.add("a");
+        assertEquals(0, buffer.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBoundsThrows() {
+        final BoundedRingBuffer<String> buffer = new BoundedRingBuffer<String>(3);
+        buffer.add("a");
+        buffer.get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setOutOfBoundsThrows() {
+        new BoundedRingBuffer<String>(3).set(0, "a");
+    }
+}
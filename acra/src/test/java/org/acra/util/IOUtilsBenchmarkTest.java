@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.util;
+
+import org.acra.ACRAConstants;
+import org.acra.collections.BoundedLinkedList;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link IOUtils#streamToString(InputStream, int)} with the previous implementation,
+ * which kept lines in a {@link BoundedLinkedList} and joined them into a builder of default size.
+ * Prints the time per call, so it is only a rough microbenchmark.
+ */
+public class IOUtilsBenchmarkTest {
+    private static final int LINES = 5000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    public void benchmarkAllLines() throws IOException {
+        benchmark(-1);
+    }
+
+    @Test
+    public void benchmarkTailOfLines() throws IOException {
+        benchmark(100);
+    }
+
+    private static void benchmark(int limit) throws IOException {
+        final byte[] input = createLogcat().getBytes(ACRAConstants.UTF8);
+        assertEquals(linkedListStreamToString(new ByteArrayInputStream(input), limit), IOUtils.streamToString(new ByteArrayInputStream(input), limit));
+
+        for (int i = 0; i < WARMUP; i++) {
+            linkedListStreamToString(new ByteArrayInputStream(input), limit);
+            IOUtils.streamToString(new ByteArrayInputStream(input), limit);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            linkedListStreamToString(new ByteArrayInputStream(input), limit);
+        }
+        final long linkedList = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            IOUtils.streamToString(new ByteArrayInputStream(input), limit);
+        }
+        final long ringBuffer = System.nanoTime() - start;
+        System.out.println("streamToString of " + LINES + " lines, limit " + limit + ": linked list " + linkedList / ITERATIONS / 1000
+                + " us, ring buffer " + ringBuffer / ITERATIONS / 1000 + " us");
+    }
+
+    private static String createLogcat() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            builder.append("10-17 12:00:00.").append(i % 1000).append("  1234  5678 D ACRA    : benchmark line number ").append(i).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The implementation before the ring buffer was introduced
+     */
+    private static String linkedListStreamToString(InputStream input, int limit) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(input), ACRAConstants.DEFAULT_BUFFER_SIZE_IN_BYTES);
+        try {
+            String line;
+            final List<String> buffer = limit == -1 ? new LinkedList<String>() : new BoundedLinkedList<String>(limit);
+            while ((line = reader.readLine()) != null) {
+                buffer.add(line);
+            }
+            // what TextUtils.join does
+            final StringBuilder builder = new StringBuilder();
+            boolean first = true;
+            for (String s : buffer) {
+                if (!first) {
+                    builder.append('\n');
+                }
+                first = false;
+                builder.append(s);
+            }
+            return builder.toString();
+        } finally {
+            IOUtils.safeClose(reader);
+        }
+    }
+}
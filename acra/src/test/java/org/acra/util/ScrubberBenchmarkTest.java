@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2016
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.acra.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks what {@link Scrubber} replaces and measures its throughput on logcat-style lines.
+ * The throughput is only printed, so it is a rough microbenchmark.
+ */
+public class ScrubberBenchmarkTest {
+    private static final int LINES = 50000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 5;
+
+    @Test
+    public void scrubsKeywordsAndPatterns() {
+        final Scrubber scrubber = createScrubber();
+        assertEquals("token=" + Scrubber.REPLACEMENT + " mail " + Scrubber.REPLACEMENT, scrubber.scrub("token=secret-token mail john.doe@example.com"));
+    }
+
+    @Test
+    public void returnsLinesWithoutMatchesAsIs() {
+        final String line = "10-17 12:00:00.000  1234  5678 D ACRA    : nothing to hide";
+        assertSame(line, createScrubber().scrub(line));
+    }
+
+    @Test
+    public void isDisabledWithoutRules() {
+        assertFalse(new Scrubber(Collections.<String>emptyList(), Collections.<String>emptyList()).isEnabled());
+    }
+
+    @Test
+    public void benchmarkThroughput() {
+        final Scrubber scrubber = createScrubber();
+        final List<String> lines = new ArrayList<String>(LINES);
+        long chars = 0;
+        for (int i = 0; i < LINES; i++) {
+            final String line = i % 10 == 0
+                    ? "10-17 12:00:00.000  1234  5678 D Login   : user " + i + "@example.com got secret-token " + i
+                    : "10-17 12:00:00.000  1234  5678 D ACRA    : benchmark line number " + i;
+            lines.add(line);
+            chars += line.length();
+        }
+
+        for (int i = 0; i < WARMUP; i++) {
+            scrubAll(scrubber, lines);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            scrubAll(scrubber, lines);
+        }
+        final long nanos = System.nanoTime() - start;
+        final double megabytes = chars * ITERATIONS / (1024.0 * 1024.0);
+        System.out.println("Scrubber throughput: " + Math.round(megabytes / (nanos / 1e9)) + " MB/s over " + LINES + " lines");
+    }
+
+    private static void scrubAll(Scrubber scrubber, List<String> lines) {
+        for (String line : lines) {
+            final String scrubbed = scrubber.scrub(line);
+            assertTrue(scrubbed.indexOf('@') == -1 && !scrubbed.contains("secret-token"));
+        }
+    }
+
+    private static Scrubber createScrubber() {
+        return new Scrubber(Arrays.asList("secret-token", "password"), Collections.singletonList("[\\w.+-]+@[\\w-]+\\.[\\w.]+"));
+    }
+}